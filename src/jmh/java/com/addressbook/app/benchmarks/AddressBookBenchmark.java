@@ -0,0 +1,120 @@
+package com.addressbook.app.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.addressbook.app.AddressBook;
+import com.addressbook.app.Contact;
+import com.addressbook.app.ContactPage;
+import com.addressbook.app.SearchResults;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AddressBookBenchmark {   // steady-state operations: the book stays at bookSize contacts throughout
+
+    private static final int SPARE_CONTACTS = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int bookSize;
+
+    @Param({"0"})   // searches repeat a few terms on an unchanging book, so a cache would hit every time; pass -p searchCacheSize=256 to measure hits
+    public int searchCacheSize;
+
+    private AddressBook addressBook;
+    private int[] ids;
+    private Contact[] spareContacts;
+    private String[] names;
+    private String[] emails;
+    private String[] phoneNumbers;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        addressBook = new AddressBook(searchCacheSize);
+        ids = new int[bookSize];
+        names = new String[bookSize];
+        emails = new String[bookSize];
+        phoneNumbers = new String[bookSize];
+        for (int n = 0; n < bookSize; n++) {
+            Contact contact = ContactData.contact(n);
+            addressBook.addContact(contact);
+            ids[n] = contact.getId();
+            names[n] = contact.getName();
+            emails[n] = contact.getEmail();
+            phoneNumbers[n] = contact.getPhoneNumber();
+        }
+        spareContacts = new Contact[SPARE_CONTACTS];
+        for (int i = 0; i < SPARE_CONTACTS; i++) {
+            spareContacts[i] = ContactData.contact(bookSize + i);
+        }
+    }
+
+    @Benchmark
+    public void addThenRemoveContact() {   // one add and one remove of a contact that is not in the book
+        Contact contact = spareContacts[cursor++ & (SPARE_CONTACTS - 1)];
+        addressBook.addContact(contact);
+        addressBook.removeContact(contact.getId());
+    }
+
+    @Benchmark
+    public void editContact() {    // renames a contact and keeps its email and phone, which exercises the uniqueness checks on unchanged keys
+        int step = cursor++ & Integer.MAX_VALUE;
+        int n = step % bookSize;
+        String name = ((step / bookSize) & 1) == 0 ? names[n] + " Jr" : names[n];    // alternates per pass over the book, so every edit is a real rename
+        addressBook.editContact(ids[n], name, emails[n], phoneNumbers[n]);
+    }
+
+    @Benchmark
+    public List<Contact> filterContactsByName() {
+        return addressBook.filterContactsByName(ContactData.searchTerm(cursor++));
+    }
+
+    @Benchmark
+    public SearchResults findFirstContactsByName() {   // the first 20 of the same matches filterContactsByName returns in full
+        return addressBook.findContactsByName(ContactData.searchTerm(cursor++), 0, 20);
+    }
+
+    @Benchmark
+    public List<Contact> findContactsBySimilarName() {
+        return addressBook.findContactsBySimilarName(ContactData.mistypedName(cursor++));
+    }
+
+    @Benchmark
+    public String getAllContacts() {
+        return addressBook.getAllContacts();
+    }
+
+    @Benchmark
+    public void writeAllContacts() throws IOException {
+        addressBook.writeAllContacts(Writer.nullWriter());
+    }
+
+    @Benchmark
+    public ContactPage getFirstContactsPage() {
+        return addressBook.getContactsPage(null, 20);
+    }
+
+    @Benchmark
+    public Contact constructContact() {     // validation plus id allocation
+        int n = cursor++ % bookSize;
+        return new Contact(names[n], emails[n], phoneNumbers[n]);
+    }
+}
@@ -0,0 +1,93 @@
+package com.addressbook.app.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.addressbook.app.ConcurrentAddressBook;
+import com.addressbook.app.Contact;
+import com.addressbook.app.ContactPage;
+import com.addressbook.app.SearchResults;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ConcurrentAddressBookBenchmark {
+    // read scaling: run the plain benchmarks with -t 1, then -t 2, 4 ... up to the core count and compare total throughput;
+    // readWhileEditing runs three readers against one thread that keeps editing contacts
+
+    @Param({"100000"})
+    public int bookSize;
+
+    private ConcurrentAddressBook addressBook;
+    private int[] ids;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        addressBook = new ConcurrentAddressBook();
+        ids = new int[bookSize];
+        for (int n = 0; n < bookSize; n++) {
+            Contact contact = ContactData.contact(n);
+            addressBook.addContact(contact);
+            ids[n] = contact.getId();
+        }
+    }
+
+    @Benchmark
+    public Contact findContact(Cursor cursor) {
+        return addressBook.findContact(ids[Math.floorMod(cursor.next++ * 7919, bookSize)]);
+    }
+
+    @Benchmark
+    public ContactPage getContactsPage() {
+        return addressBook.getContactsPage(null, 20);
+    }
+
+    @Benchmark
+    public List<Contact> filterContactsByName(Cursor cursor) {
+        return addressBook.filterContactsByName(ContactData.searchTerm(cursor.next++));
+    }
+
+    @Benchmark
+    public SearchResults findContactsByName(Cursor cursor) {     // the first page of a search, as GET /contacts/search serves it
+        return addressBook.findContactsByName(ContactData.searchTerm(cursor.next++), 0, 100);
+    }
+
+    @Benchmark
+    @Group("readWhileEditing")
+    @GroupThreads(3)
+    public Contact reader(Cursor cursor) {
+        return findContact(cursor);
+    }
+
+    @Benchmark
+    @Group("readWhileEditing")
+    @GroupThreads(1)
+    public void editor(Cursor cursor) {    // renames a contact between two names, keeping its email and phone number
+        int step = cursor.next++ & Integer.MAX_VALUE;
+        int n = (int) (step * 7919L % bookSize);     // 7919 is prime, so each pass of bookSize steps visits every contact once
+        String name = ((step / bookSize) & 1) == 0 ? ContactData.name(n) + " Jr" : ContactData.name(n);
+        addressBook.editContact(ids[n], name, ContactData.email(n), ContactData.phoneNumber(n));
+    }
+}
@@ -0,0 +1,56 @@
+package com.addressbook.app.benchmarks;
+
+import java.util.Random;
+
+import com.addressbook.app.Contact;
+
+final class ContactData {    // generates realistic, unique contacts: the n-th contact is always the same, so runs are comparable
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda",
+            "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles",
+            "Karen", "Mohammed", "Aisha", "Wei", "Mei", "Oluwaseun", "Chioma", "Sven", "Ingrid", "Mateo", "Sofía", "Zoë", "Björn"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+            "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Khan", "Patel", "Nguyen", "Okafor", "Adeyemi", "Andersson", "Müller", "O'Brien", "Kowalski", "Rossi"};
+    private static final String[] DOMAINS = {"gmail.com", "outlook.com", "yahoo.co.uk", "ourcorp.com", "example.org", "mail.net"};
+    private static final String[] SEARCH_TERMS = {"john", "smi", "a", "Patel", "liz", "son", "zz"};
+    private static final String[] MISTYPED_NAMES = {"Jonh Smtih", "Patirca", "Willaims", "Mohamed Kahn", "Elizbeth Tylor", "Bjorn"};
+
+    private ContactData() {}
+
+    static String name(int n) {
+        Random random = new Random(n);
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    static String email(int n) {
+        Random random = new Random(n);
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)].toLowerCase().replaceAll("[^a-z]", "");
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)].toLowerCase().replaceAll("[^a-z]", "");
+        return first + "." + last + n + "@" + DOMAINS[n % DOMAINS.length];
+    }
+
+    static String phoneNumber(int n) {    // unique digits per n, in a few common layouts
+        String digits = String.format("%010d", 2_000_000_000L + n * 7L);
+        switch (n % 3) {
+            case 0:
+                return "(" + digits.substring(0, 3) + ") " + digits.substring(3, 6) + "-" + digits.substring(6);
+            case 1:
+                return digits.substring(0, 3) + "." + digits.substring(3, 6) + "." + digits.substring(6);
+            default:
+                return digits;
+        }
+    }
+
+    static Contact contact(int n) {
+        return new Contact(name(n), email(n), phoneNumber(n));
+    }
+
+    static String searchTerm(int n) {
+        return SEARCH_TERMS[Math.floorMod(n, SEARCH_TERMS.length)];
+    }
+
+    static String mistypedName(int n) {
+        return MISTYPED_NAMES[Math.floorMod(n, MISTYPED_NAMES.length)];
+    }
+}
@@ -0,0 +1,93 @@
+package com.addressbook.app.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+
+import com.addressbook.app.AddressBook;
+import com.addressbook.app.Contact;
+import com.addressbook.app.index.IntIntHashMap;
+import com.addressbook.app.store.ColumnarContactStore;
+
+public class FootprintComparison {
+    // measures retained heap per contact for the object layout AddressBook's default store uses (ArrayList<Contact> plus
+    // its id map) against ColumnarContactStore, by comparing used heap after a full GC before and after filling each one.
+    // Then does the same for whole books on either store, which adds the indexes every book keeps whatever its store.
+    // run with: java -cp target/benchmarks.jar com.addressbook.app.benchmarks.FootprintComparison [contacts]
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[][] fields = new String[count][];
+        for (int n = 0; n < count; n++) {   // generated once up front so both layouts copy the same strings
+            fields[n] = new String[] {ContactData.name(n), ContactData.email(n), ContactData.phoneNumber(n)};
+        }
+
+        long objectLayout = objectFootprint(fields);
+        report("Contact objects", objectLayout, count);
+        long columnar = columnarFootprint(fields);
+        report("Columnar store", columnar, count);
+        System.out.printf("Saved %.1f%%%n", 100.0 * (objectLayout - columnar) / objectLayout);
+
+        long objectBook = bookFootprint(new AddressBook(0), fields);
+        report("Book on objects", objectBook, count);
+        long columnarBook = bookFootprint(new AddressBook(0, AddressBook.DEFAULT_LOCALE, new ColumnarContactStore()), fields);
+        report("Book on columns", columnarBook, count);
+        System.out.printf("Saved %.1f%%%n", 100.0 * (objectBook - columnarBook) / objectBook);
+    }
+
+    // each layout is filled and measured in its own method, so nothing it built is still reachable during the next one
+
+    private static long objectFootprint(String[][] fields) {
+        long before = usedHeap();
+        ArrayList<Contact> contacts = new ArrayList<>();
+        IntIntHashMap slotsById = new IntIntHashMap();
+        for (int n = 0; n < fields.length; n++) {
+            Contact contact = Contact.restore(n + 1, copy(fields[n][0]), copy(fields[n][1]), copy(fields[n][2]));
+            slotsById.put(contact.getId(), contacts.size());
+            contacts.add(contact);
+        }
+        long bytes = usedHeap() - before;
+        Reference.reachabilityFence(contacts);      // otherwise the JIT may treat them as garbage before the heap is read
+        Reference.reachabilityFence(slotsById);
+        return bytes;
+    }
+
+    private static long columnarFootprint(String[][] fields) {
+        long before = usedHeap();
+        ColumnarContactStore store = new ColumnarContactStore();
+        for (int n = 0; n < fields.length; n++) {
+            store.add(n + 1, fields[n][0], fields[n][1], fields[n][2]);
+        }
+        long bytes = usedHeap() - before;
+        System.out.printf("Columnar store estimate: %.1f bytes per contact, %d email domains%n",
+                (double) store.getFootprintBytes() / fields.length, store.getDomainCount());
+        return bytes;
+    }
+
+    private static long bookFootprint(AddressBook addressBook, String[][] fields) {
+        long before = usedHeap();
+        for (int n = 0; n < fields.length; n++) {
+            addressBook.addContact(Contact.restore(n + 1, copy(fields[n][0]), copy(fields[n][1]), copy(fields[n][2])));
+        }
+        long bytes = usedHeap() - before;
+        Reference.reachabilityFence(addressBook);
+        return bytes;
+    }
+
+    private static String copy(String value) {     // new String(value) would share the original's array and hide its size
+        return String.valueOf(value.toCharArray());
+    }
+
+    private static void report(String layout, long bytes, int count) {
+        System.out.printf("%-16s %,d bytes, %.1f bytes per contact%n", layout + ":", bytes, (double) bytes / count);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,76 @@
+package com.addressbook.app.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.addressbook.app.AddressBook;
+import com.addressbook.app.Contact;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = MutationBenchmark.BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = MutationBenchmark.BATCH_SIZE)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MutationBenchmark {  // plain adds and removes, timed per batch of BATCH_SIZE; the book is put back after every iteration
+
+    static final int BATCH_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int bookSize;
+
+    private AddressBook addressBook;
+    private Contact[] bookContacts;
+    private Contact[] newContacts;
+    private int added;
+    private int removed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        addressBook = new AddressBook();
+        bookContacts = new Contact[bookSize];
+        for (int n = 0; n < bookSize; n++) {
+            bookContacts[n] = ContactData.contact(n);
+            addressBook.addContact(bookContacts[n]);
+        }
+        newContacts = new Contact[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            newContacts[i] = ContactData.contact(bookSize + i);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void restoreBook() {
+        for (int i = 0; i < added; i++) {
+            addressBook.removeContact(newContacts[i].getId());
+        }
+        for (int i = 0; i < removed; i++) {
+            addressBook.addContact(bookContacts[i]);
+        }
+        added = 0;
+        removed = 0;
+    }
+
+    @Benchmark
+    public void addContact() {
+        addressBook.addContact(newContacts[added++]);
+    }
+
+    @Benchmark
+    public void removeContact() {
+        addressBook.removeContact(bookContacts[removed++ % bookSize].getId());
+    }
+}
@@ -0,0 +1,61 @@
+package com.addressbook.app.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.addressbook.app.Contact;
+import com.addressbook.app.SearchResults;
+import com.addressbook.app.ShardedAddressBook;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ShardedSearchBenchmark {   // shards = 1 is the single-core baseline; compare against shards up to the machine's core count
+
+    @Param({"100000", "1000000"})
+    public int bookSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    private ShardedAddressBook addressBook;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        addressBook = new ShardedAddressBook(shards);
+        for (int n = 0; n < bookSize; n++) {
+            addressBook.addContact(ContactData.contact(n));
+        }
+    }
+
+    @Benchmark
+    public List<Contact> filterContactsByName() {
+        return addressBook.filterContactsByName(ContactData.searchTerm(cursor++));
+    }
+
+    @Benchmark
+    public SearchResults findFirstContactsByName() {
+        return addressBook.findContactsByName(ContactData.searchTerm(cursor++), 0, 20);
+    }
+
+    @Benchmark
+    public List<Contact> getContacts() {
+        return addressBook.getContacts();
+    }
+}
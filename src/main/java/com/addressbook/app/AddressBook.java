@@ -1,120 +1,723 @@
 package com.addressbook.app;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
 
+import com.addressbook.app.cache.SearchCache;
+import com.addressbook.app.events.ContactEventBus;
+import com.addressbook.app.events.ContactEventType;
+import com.addressbook.app.events.ContactState;
 import com.addressbook.app.exceptions.ValidationException   ;
+import com.addressbook.app.index.ContactKeys;
+import com.addressbook.app.index.FuzzyMatch;
+import com.addressbook.app.index.FuzzyNameIndex;
+import com.addressbook.app.index.NGramIndex;
+import com.addressbook.app.index.NameCollator;
+import com.addressbook.app.index.NameKey;
+import com.addressbook.app.index.PrefixTrie;
+import com.addressbook.app.index.SortedNameIndex;
+import com.addressbook.app.metrics.AddressBookMetrics;
+import com.addressbook.app.metrics.Operation;
+import com.addressbook.app.store.ContactStore;
+import com.addressbook.app.validation.ContactValidator;
 
 public class AddressBook {
 
-    private ArrayList<Contact> contacts = new ArrayList<>();
-    public AddressBook() {}
+    public static final int DEFAULT_MAX_EDIT_DISTANCE = 2;
+    public static final int DEFAULT_FUZZY_RESULT_LIMIT = 100;
+    public static final int DEFAULT_SEARCH_CACHE_SIZE = 256;
+    public static final int MAX_CACHED_CONTACTS = 1_000_000;   // bounds the cache's memory: cached lists hold at most this many references in total
 
-    public void addContact(Contact contact) {
-        if (contact != null && !doesContactAlreadyExist(contact.getId(), contact.getEmail(), contact.getPhoneNumber())) {  // TODO: make less ugly - null check gets invalidated if i define variables before but I want null handled
-            try {
-                contacts.add(contact);
-            } catch (ValidationException e) {
-                System.err.println("Failed to add contact: " + e.getMessage());
-            }
+    public static final Locale DEFAULT_LOCALE = Locale.ROOT;
+
+    private final ContactStore store;                                                  // the contacts' fields, by row
+    private final List<Contact> contacts = new ContactList();                          // read-only live view of the store's rows
+    private final ArrayList<NameKey> nameKeys = new ArrayList<>();                     // parallel to the store's rows: each name's sort key, made once per add or rename
+    private final HashMap<String, Integer> idsByEmail = new HashMap<>();               // normalized email -> contact id, keeps duplicate checks O(1)
+    private final HashMap<String, Integer> idsByPhoneNumber = new HashMap<>();         // normalized phone number -> contact id
+    private final NGramIndex nameIndex = new NGramIndex();                             // trigrams of case-folded names, for substring search
+    private final SortedNameIndex sortedNames = new SortedNameIndex();                 // (name, id) in order, for listings
+    private final FuzzyNameIndex fuzzyNames = new FuzzyNameIndex();                    // BK-tree of name tokens, for typo-tolerant search
+    private final PrefixTrie emailTrie = new PrefixTrie();                             // normalized email -> id, for prefix search
+    private final PrefixTrie domainTrie = new PrefixTrie();                            // reversed domain + local part -> id, for "@domain" search
+    private final PrefixTrie phoneNumberTrie = new PrefixTrie();                       // phone digits -> id, for prefix search
+    private final AddressBookMetrics metrics = new AddressBookMetrics();
+    private final ContactEventBus events = new ContactEventBus();
+    private final SearchCache<NameQuery, SearchResults> searchCache;
+    private long version;       // bumped by every change, which invalidates all cached search results at once
+    private final NameCollator collator;    // null sorts names by UTF-16 code unit
+
+    private record NameQuery(String lowerCaseName, int offset, int limit) {}  // limit is -1 for the full result list
+
+    public AddressBook() {
+        this(DEFAULT_SEARCH_CACHE_SIZE);
+    }
+
+    public AddressBook(int searchCacheSize) {   // 0 turns the search cache off
+        this(searchCacheSize, DEFAULT_LOCALE);
+    }
+
+    public AddressBook(int searchCacheSize, Locale locale) {    // names sort by the locale's collation rules, or by code unit when locale is null
+        this(searchCacheSize, locale, new ContactListStore());
+    }
+
+    public AddressBook(int searchCacheSize, Locale locale, ContactStore store) {
+        // the default store keeps the Contact objects it is given, so the book hands back the very contact that was added.
+        // Other stores copy the fields in and hand out their own Contact objects, e.g. ColumnarContactStore's views
+        if (store.size() != 0) {
+            throw new IllegalArgumentException("The contact store must start empty");
+        }
+        this.store = store;
+        collator = locale == null ? null : new NameCollator(locale);
+        searchCache = new SearchCache<>(searchCacheSize, MAX_CACHED_CONTACTS, results -> results.contacts().size());
+        metrics.registerGauge("Contacts", store::size);
+        metrics.registerGauge("EmailIndexEntries", idsByEmail::size);
+        metrics.registerGauge("PhoneNumberIndexEntries", idsByPhoneNumber::size);
+        metrics.registerGauge("NameTrigrams", nameIndex::gramCount);
+        metrics.registerGauge("NameTokens", fuzzyNames::termCount);
+        metrics.registerGauge("EmailTrieKeys", emailTrie::size);
+        metrics.registerGauge("PhoneNumberTrieKeys", phoneNumberTrie::size);
+        metrics.registerGauge("SearchCacheEntries", searchCache::size);
+        metrics.registerGauge("SearchCacheHitPercent", () -> (int) Math.round(searchCache.getHitRate() * 100));
+    }
+
+    public AddressBookMetrics getMetrics() {
+        return metrics;
+    }
+
+    public ContactEventBus getEvents() {   // subscribe here to follow every change instead of polling getContacts()
+        return events;
+    }
+
+    public SearchCache<?, ?> getSearchCache() {    // for its hit and miss counts
+        return searchCache;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Locale getLocale() {
+        return collator == null ? null : collator.getLocale();
+    }
+
+    public NameKey getNameKey(int id) {    // the key a contact is sorted by, or null if it is not in the book
+        int row = store.rowOf(id);
+        return row == ContactStore.NO_ROW ? null : nameKeys.get(row);
+    }
+
+    public void addContact(Contact contact) {     // reports failures on System.err, or by throwing for duplicates; tryAddContact returns them instead
+        switch (tryAddContact(contact)) {
+            case ALREADY_EXISTS -> System.err.println("Failed to add contact: contact already exists");
+            case DUPLICATE_EMAIL -> throw new ValidationException(MutationOutcome.DUPLICATE_EMAIL.getMessage());
+            case DUPLICATE_PHONE -> throw new ValidationException(MutationOutcome.DUPLICATE_PHONE.getMessage());
+            case INVALID_FIELD -> System.err.println("Failed to add contact: contact is null");
+            default -> { }
+        }
+    }
+
+    public MutationOutcome tryAddContact(Contact contact) {    // never throws or prints, so rejecting a duplicate costs two lookups
+        long start = System.nanoTime();
+        MutationOutcome outcome;
+        if (contact == null) {
+            outcome = MutationOutcome.INVALID_FIELD;
+        } else if (store.rowOf(contact.getId()) != ContactStore.NO_ROW) {
+            outcome = MutationOutcome.ALREADY_EXISTS;
         } else {
-            System.err.println("Failed to add contact: contact is null");
+            outcome = checkKeys(contact.getId(), contact.getEmail(), contact.getPhoneNumber());
+        }
+        if (outcome.isSuccess()) {
+            insertContact(contact);
         }
+        metrics.record(Operation.ADD, start, !outcome.isSuccess());
+        return outcome;
     }
 
     public void removeContact(int id) {
-        for (Contact contact : contacts) {
-            if (contact.getId() == id) {
-                contacts.remove(contact);
-                return;
-            }
+        if (tryRemoveContact(id) == MutationOutcome.NOT_FOUND) {
+            System.err.println("Failed to remove contact: contact not found");
+        }
+    }
+
+    public MutationOutcome tryRemoveContact(int id) {
+        long start = System.nanoTime();
+        int row = store.rowOf(id);
+        if (row == ContactStore.NO_ROW) {
+            metrics.record(Operation.REMOVE, start, true);
+            return MutationOutcome.NOT_FOUND;
         }
-        System.err.println("Failed to remove contact: contact not found");
+        removeRow(row);
+        metrics.record(Operation.REMOVE, start, false);
+        return MutationOutcome.SUCCESS;
     }
 
     public void editContact(int id, String name, String email, String phoneNumber) {
-        for (Contact contact : contacts) {
-            if (contact.getId() == id && !doesContactAlreadyExist(id, email, phoneNumber) ) {
-                contact.setName(name);
-                contact.setEmail(email);
-                contact.setPhoneNumber(phoneNumber);
-                return;
+        switch (tryEditContact(id, name, email, phoneNumber)) {
+            case NOT_FOUND -> System.err.println("Failed to edit contact: contact not found");
+            case DUPLICATE_EMAIL -> throw new ValidationException(MutationOutcome.DUPLICATE_EMAIL.getMessage());
+            case DUPLICATE_PHONE -> throw new ValidationException(MutationOutcome.DUPLICATE_PHONE.getMessage());
+            case INVALID_FIELD -> throw new ValidationException(ContactValidator.findProblem(name, email, phoneNumber));
+            default -> { }
+        }
+    }
+
+    public MutationOutcome tryEditContact(int id, String name, String email, String phoneNumber) {
+        // every field is checked before anything changes, so a rejected edit leaves the contact exactly as it was
+        long start = System.nanoTime();
+        Contact contact = findContact(id);
+        MutationOutcome outcome;
+        if (contact == null) {
+            outcome = MutationOutcome.NOT_FOUND;
+        } else if (ContactValidator.findProblem(name, email, phoneNumber) != null) {
+            outcome = MutationOutcome.INVALID_FIELD;
+        } else {
+            outcome = checkKeys(id, email, phoneNumber);
+        }
+        if (outcome.isSuccess()) {
+            updateContact(contact, name, email, phoneNumber);
+        }
+        metrics.record(Operation.EDIT, start, !outcome.isSuccess());
+        return outcome;
+    }
+
+    public BatchResult applyBatch(List<Mutation> mutations) {
+        // checks every item against the book and the items before it in one pass, then applies all of them or none. Items
+        // apply in order, so an add followed by an edit of the same contact works, but two contacts cannot swap emails in one
+        // batch: the first edit still collides with the other contact's current email
+        long start = System.nanoTime();
+        BatchPlan plan = new BatchPlan();
+        MutationOutcome[] outcomes = new MutationOutcome[mutations.size()];
+        boolean valid = true;
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = plan.check(mutations.get(i));
+            valid &= outcomes[i].isSuccess();
+        }
+        if (valid) {
+            for (Mutation mutation : mutations) {   // nothing can fail from here on, every item was checked against the state it will meet
+                switch (mutation) {
+                    case Mutation.Add add -> insertContact(add.contact());
+                    case Mutation.Edit edit -> updateContact(findContact(edit.id()), edit.name(), edit.email(), edit.phoneNumber());
+                    case Mutation.Remove remove -> removeRow(store.rowOf(remove.id()));
+                }
+            }
+        } else {
+            for (int i = 0; i < outcomes.length; i++) {
+                if (outcomes[i].isSuccess()) {
+                    outcomes[i] = MutationOutcome.ABORTED;
+                }
             }
         }
-        System.err.println("Failed to edit contact: contact not found");
+        metrics.record(Operation.BATCH, start, !valid);
+        return new BatchResult(valid, List.of(outcomes));
     }
 
-    public ArrayList<Contact> getContacts() {
-        return contacts; // exists purely for testing so far
+    public Contact findContact(int id) {
+        int row = store.rowOf(id);
+        return row == ContactStore.NO_ROW ? null : store.contactAt(row);
     }
 
-    public String getAllContacts() {
+    public List<Contact> getContacts() {
+        return contacts; // a read-only view, changes go through the book so its indexes stay in step
+    }
+
+    public String getAllContacts() {   // builds the whole listing in memory, prefer writeAllContacts or getContactsPage for large books
+        long start = System.nanoTime();
         StringBuilder result = new StringBuilder();
         if (contacts.isEmpty()) {
             System.err.println("No contacts found");
         } else {
-            contacts.sort(Comparator.comparing(Contact::getName));
-            for (Contact contact : contacts) {
-                String contactInfo = "ID: " + contact.getId() +  "Name: " + contact.getName() + ", Email: " + contact.getEmail() + ", Phone: " + contact.getPhoneNumber();
-                result.append(contactInfo).append("\n");
+            try {
+                writeContacts(sortedContacts(), result);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);  // StringBuilder never throws, this only satisfies Appendable
             }
         }
+        metrics.record(Operation.LIST, start, false);
         return result.toString();
     }
 
+    public void writeAllContacts(Appendable out) throws IOException {  // streams the listing to out one contact at a time
+        long start = System.nanoTime();
+        if (contacts.isEmpty()) {
+            System.err.println("No contacts found");
+        } else {
+            writeContacts(sortedContacts(), out);
+        }
+        metrics.record(Operation.LIST, start, false);
+    }
+
+    public void writeContacts(Iterable<Contact> contactsToWrite, Appendable out) throws IOException {
+        for (Contact contact : contactsToWrite) {
+            out.append("ID: ").append(String.valueOf(contact.getId()))
+                    .append("Name: ").append(contact.getName())
+                    .append(", Email: ").append(contact.getEmail())
+                    .append(", Phone: ").append(contact.getPhoneNumber())
+                    .append('\n');
+        }
+    }
+
+    public Iterable<Contact> sortedContacts() {     // live view in name order, nothing is copied
+        return () -> contactsFor(sortedNames.iterator());
+    }
+
+    public ContactPage getContactsPage(NameKey after, int pageSize) {  // keyset pagination: pass null for the first page, then the previous page's nextCursor
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        long start = System.nanoTime();
+        if (after != null && collator != null && after.collationKey() == null) {    // e.g. a cursor rebuilt from its name and id
+            after = collator.keyFor(after.name(), after.id());
+        }
+        Iterator<NameKey> keys = after == null ? sortedNames.iterator() : sortedNames.after(after).iterator();
+        List<Contact> page = new ArrayList<>(Math.min(pageSize, contacts.size()));
+        NameKey last = null;
+        while (page.size() < pageSize && keys.hasNext()) {
+            last = keys.next();
+            page.add(findContact(last.id()));
+        }
+        ContactPage result = new ContactPage(page, keys.hasNext() ? last : null);
+        metrics.record(Operation.LIST, start, false);
+        return result;
+    }
+
     public void deleteAll() {
         if (contacts.isEmpty()) {
             System.err.println("No contacts found");
             return;
         }
-        contacts.clear();
+        clear();
         System.out.println("All contacts have been deleted.");
     }
 
+    public void clear() {   // deleteAll without the console messages, for callers that report on their own
+        store.clear();
+        nameKeys.clear();
+        idsByEmail.clear();
+        idsByPhoneNumber.clear();
+        nameIndex.clear();
+        sortedNames.clear();
+        fuzzyNames.clear();
+        emailTrie.clear();
+        domainTrie.clear();
+        phoneNumberTrie.clear();
+        searchCache.clear();
+        version++;
+        if (events.hasSubscribers()) {
+            events.publish(ContactEventType.CLEARED, null, null);
+        }
+    }
+
     public void searchContacts(String name) {
         List<Contact> filteredContacts = filterContactsByName(name);
         printSortedContacts(filteredContacts);
     }
 
-    private List<Contact> filterContactsByName(String name) {  // retrieves search results matching the input, places them in an arraylist to be used by printSortedContacts
-        String lowerCaseName = name.toLowerCase();
-        List<Contact> filteredContacts = new ArrayList<>();
-        for (Contact contact : contacts) {
-            boolean containsName = contact.getName().toLowerCase().contains(lowerCaseName);
-            if (containsName) {
-                filteredContacts.add(contact);
-            }
+    public List<Contact> filterContactsByName(String name) {  // retrieves search results matching the input in alphabetical order, to be used by printSortedContacts
+        long start = System.nanoTime();
+        NameQuery query = new NameQuery(name.toLowerCase(), 0, -1);
+        SearchResults cached = searchCache.get(query, version);
+        List<Contact> filteredContacts;
+        if (cached != null) {
+            filteredContacts = cached.contacts();
+        } else {
+            filteredContacts = Collections.unmodifiableList(matchContactsByName(name));    // read-only, as the same list may be handed out again
+            searchCache.put(query, version, new SearchResults(filteredContacts, 0, filteredContacts.size(), true));
         }
+        metrics.record(Operation.SEARCH, start, false);
         return filteredContacts;
     }
 
-    private void printSortedContacts(List<Contact> filteredContacts) {  // sorts the arraylist of filtered contacts into alphabetical order, then prints them
-        filteredContacts.sort(Comparator.comparing(Contact::getName));
-        for (Contact contact : filteredContacts) {
-            System.out.println("Name: " + contact.getName() + ", Email: " + contact.getEmail() + ", Phone: " + contact.getPhoneNumber());
+    private List<Contact> matchContactsByName(String name) {
+        if (name.length() < NGramIndex.GRAM_LENGTH) {   // short queries match a large share of the book, so walk the sorted names instead of sorting the matches
+            String lowerCaseName = name.toLowerCase();
+            List<Contact> filteredContacts = new ArrayList<>();
+            for (NameKey key : sortedNames) {
+                if (nameIndex.matches(key.id(), lowerCaseName)) {
+                    filteredContacts.add(findContact(key.id()));
+                }
+            }
+            return filteredContacts;
         }
+        int[] matchingIds = nameIndex.search(name);
+        List<NameKey> keys = new ArrayList<>(matchingIds.length);
+        for (int id : matchingIds) {
+            keys.add(getNameKey(id));
+        }
+        return contactsInNameOrder(keys);  // trigram queries are selective, so only the few matches get ordered
     }
 
-    private boolean doesContactAlreadyExist(int id, String email, String phoneNumber) {
-        return doesEmailAlreadyExist(id, email) || doesPhoneNumberAlreadyExist(id, phoneNumber);
+    public SearchResults findContactsByName(String name, int offset, int limit) {
+        // the window [offset, offset + limit) of filterContactsByName's results, without collecting or sorting all of them
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset must not be negative and limit must be positive");
+        }
+        long start = System.nanoTime();
+        NameQuery query = new NameQuery(name.toLowerCase(), offset, limit);
+        SearchResults results = searchCache.get(query, version);
+        if (results == null) {
+            results = name.length() < NGramIndex.GRAM_LENGTH ? walkSortedNames(name.toLowerCase(), offset, limit) : firstMatchesByName(name, offset, limit);
+            results = new SearchResults(Collections.unmodifiableList(results.contacts()), results.offset(), results.totalEstimate(), results.exactTotal());
+            searchCache.put(query, version, results);
+        }
+        metrics.record(Operation.SEARCH, start, false);
+        return results;
     }
-    private boolean doesEmailAlreadyExist(int id, String email) {
-        for (Contact contact : contacts) {
-            if (contact.getId() != id && contact.getEmail().equals(email)) {
-                throw new ValidationException("Email already exists");
+
+
+    private SearchResults firstMatchesByName(String name, int offset, int limit) {
+        int[] matchingIds = nameIndex.search(name);
+        int wanted = (int) Math.min((long) offset + limit, matchingIds.length);
+        PriorityQueue<NameKey> first = new PriorityQueue<>(Math.max(1, wanted), Comparator.reverseOrder());   // the first few by name, largest on top
+        for (int id : matchingIds) {
+            NameKey key = getNameKey(id);
+            if (first.size() < wanted) {
+                first.add(key);
+            } else if (wanted > 0 && key.compareTo(first.peek()) < 0) {
+                first.poll();
+                first.add(key);
+            }
+        }
+        List<Contact> window = contactsInNameOrder(new ArrayList<>(first));
+        return new SearchResults(window.subList(Math.min(offset, window.size()), window.size()), offset, matchingIds.length, true);
+    }
+
+    private SearchResults walkSortedNames(String lowerCaseName, int offset, int limit) {
+        // short queries match a large share of the book, so read names in order and stop one match past the window
+        List<Contact> window = new ArrayList<>(Math.min(limit, contacts.size()));
+        long end = (long) offset + limit;     // offset + limit can overflow an int when a caller asks for everything
+        int scanned = 0;
+        int found = 0;
+        boolean more = false;
+        for (NameKey key : sortedNames) {
+            scanned++;
+            if (nameIndex.matches(key.id(), lowerCaseName)) {
+                if (found >= end) {
+                    more = true;
+                    break;
+                }
+                if (found >= offset) {
+                    window.add(findContact(key.id()));
+                }
+                found++;
+            }
+        }
+        if (!more) {
+            return new SearchResults(window, offset, found, true);
+        }
+        int estimate = (int) Math.min(contacts.size(), (long) found * contacts.size() / scanned);     // assumes the rest of the book matches at the same rate
+        return new SearchResults(window, offset, Math.max(estimate, found + 1), false);
+    }
+
+    public List<Contact> findContactsBySimilarName(String name) {
+        return findContactsBySimilarName(name, DEFAULT_MAX_EDIT_DISTANCE, DEFAULT_FUZZY_RESULT_LIMIT);
+    }
+
+    public List<Contact> findContactsBySimilarName(String name, int maxDistance, int limit) {
+        // each word of the query may be up to maxDistance edits away from a word of the name, so "Jonh Smtih" finds "John Smith";
+        // returns the closest limit matches, ties in distance ordered by name
+        long start = System.nanoTime();
+        List<FuzzyMatch> matches = fuzzyNames.search(name, maxDistance);
+        List<Contact> result = new ArrayList<>(Math.min(limit, matches.size()));
+        List<List<NameKey>> byDistance = new ArrayList<>();
+        for (FuzzyMatch match : matches) {
+            while (byDistance.size() <= match.distance()) {
+                byDistance.add(new ArrayList<>());
             }
+            byDistance.get(match.distance()).add(getNameKey(match.id()));
+        }
+        for (List<NameKey> tied : byDistance) {
+            int wanted = limit - result.size();
+            if (wanted <= 0) {
+                break;
+            }
+            if (tied.size() > wanted) {    // only the first few by name are needed, so keep a bounded heap instead of sorting them all
+                PriorityQueue<NameKey> first = new PriorityQueue<>(wanted, Comparator.reverseOrder());
+                for (NameKey key : tied) {
+                    if (first.size() < wanted) {
+                        first.add(key);
+                    } else if (key.compareTo(first.peek()) < 0) {
+                        first.poll();
+                        first.add(key);
+                    }
+                }
+                tied = new ArrayList<>(first);
+            }
+            result.addAll(contactsInNameOrder(tied));
+        }
+        metrics.record(Operation.SEARCH, start, false);
+        return result;
+    }
+
+    public void searchContactsByEmail(String prefix) {
+        printSortedContacts(sortedByName(findContactsByEmailPrefix(prefix)));
+    }
+
+    public void searchContactsByPhoneNumber(String prefix) {
+        printSortedContacts(sortedByName(findContactsByPhoneNumberPrefix(prefix)));
+    }
+
+    public List<Contact> findContactsByEmailPrefix(String prefix) {
+        // "jsm" matches emails starting with jsm, "@ourcorp.com" matches every email at ourcorp.com or a subdomain of it; ignores case.
+        // Matches come in key order (email, or domain then email), not name order
+        long start = System.nanoTime();
+        String query = ContactKeys.normalizeEmail(prefix.trim());
+        List<Contact> matches;
+        if (query.startsWith("@") && query.length() > 1) {
+            String reversedDomain = ContactKeys.reverseDomain(query.substring(1));
+            matches = contactsWithIds(domainTrie.withPrefix(reversedDomain + "@"));
+            matches.addAll(contactsWithIds(domainTrie.withPrefix(reversedDomain + ".")));
+        } else {
+            matches = contactsWithIds(emailTrie.withPrefix(query));
         }
-        return  false;
+        metrics.record(Operation.SEARCH, start, false);
+        return matches;
     }
 
-    private boolean doesPhoneNumberAlreadyExist(int id, String phoneNumber) {
+    public List<Contact> findContactsByPhoneNumberPrefix(String prefix) {  // only the digits count, so "+44 20" and "4420" find the same contacts; in digit order
+        long start = System.nanoTime();
+        String digits = ContactKeys.normalizePhoneNumber(prefix);
+        List<Contact> matches = digits.isEmpty() ? new ArrayList<>() : contactsWithIds(phoneNumberTrie.withPrefix(digits));
+        metrics.record(Operation.SEARCH, start, false);
+        return matches;
+    }
+
+    private List<Contact> contactsWithIds(int[] ids) {
+        List<Contact> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(findContact(id));
+        }
+        return result;
+    }
+
+    private List<Contact> sortedByName(List<Contact> contacts) {
+        List<NameKey> keys = new ArrayList<>(contacts.size());
         for (Contact contact : contacts) {
-            if (contact.getId() != id && contact.getPhoneNumber().equals(phoneNumber)) {
-                throw new ValidationException("Phone number already exists");
+            keys.add(getNameKey(contact.getId()));
+        }
+        return contactsInNameOrder(keys);
+    }
+
+    private List<Contact> contactsInNameOrder(List<NameKey> keys) {  // sorts on the precomputed keys, never on the names themselves
+        keys.sort(null);
+        List<Contact> result = new ArrayList<>(keys.size());
+        for (NameKey key : keys) {
+            result.add(findContact(key.id()));
+        }
+        return result;
+    }
+
+    private void printSortedContacts(List<Contact> filteredContacts) {  // prints the filtered contacts, which already come in alphabetical order
+        for (Contact contact : filteredContacts) {
+            System.out.println("Name: " + contact.getName() + ", Email: " + contact.getEmail() + ", Phone: " + contact.getPhoneNumber());
+        }
+    }
+
+    private Iterator<Contact> contactsFor(Iterator<NameKey> keys) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public Contact next() {
+                return findContact(keys.next().id());
             }
+        };
+    }
+
+    private MutationOutcome checkKeys(int id, String email, String phoneNumber) {    // whether another contact already owns the email or phone number
+        Integer owner = idsByEmail.get(ContactKeys.normalizeEmail(email));
+        if (owner != null && owner != id) {
+            return MutationOutcome.DUPLICATE_EMAIL;
+        }
+        owner = idsByPhoneNumber.get(ContactKeys.normalizePhoneNumber(phoneNumber));
+        if (owner != null && owner != id) {
+            return MutationOutcome.DUPLICATE_PHONE;
+        }
+        return MutationOutcome.SUCCESS;
+    }
+
+    private void insertContact(Contact contact) {
+        int row = store.append(contact);
+        nameKeys.add(null);
+        indexContact(contact, row);
+        version++;
+        if (events.hasSubscribers()) {
+            events.publish(ContactEventType.ADDED, null, ContactState.of(contact));
+        }
+    }
+
+    private void removeRow(int row) {
+        Contact contact = store.contactAt(row);
+        ContactState removed = events.hasSubscribers() ? ContactState.of(contact) : null;     // read while the store still holds the row
+        unindexContact(contact, nameKeys.get(row));
+        NameKey lastNameKey = nameKeys.remove(nameKeys.size() - 1);     // mirror the store's swap-remove
+        if (row < nameKeys.size()) {
+            nameKeys.set(row, lastNameKey);
+        }
+        store.removeRow(row);
+        version++;
+        if (removed != null) {
+            events.publish(ContactEventType.REMOVED, removed, null);
         }
-        return false;
     }
 
-}
\ No newline at end of file
+    private void updateContact(Contact contact, String name, String email, String phoneNumber) {    // the new fields must already be checked
+        ContactState before = events.hasSubscribers() ? ContactState.of(contact) : null;
+        int row = store.rowOf(contact.getId());
+        unindexContact(contact, nameKeys.get(row));
+        version++;
+        store.updateRow(row, name, email, phoneNumber);     // already validated, so not counted again in the validation stats
+        Contact edited = store.contactAt(row);
+        indexContact(edited, row);
+        ContactState after = before == null ? null : ContactState.of(edited);
+        if (after != null && !after.equals(before)) {
+            events.publish(ContactEventType.EDITED, before, after);
+        }
+    }
+
+    private final class BatchPlan {
+        // a dry run of a batch: overlays on the id, email and phone indexes record what the items so far would change,
+        // while the book itself is only read
+
+        private final HashMap<Integer, ContactState> pending = new HashMap<>();     // id -> its fields after the items so far, null once removed
+        private final HashMap<String, Integer> emailOwners = new HashMap<>();       // normalized email -> id holding it, null once freed
+        private final HashMap<String, Integer> phoneNumberOwners = new HashMap<>();
+
+        MutationOutcome check(Mutation mutation) {
+            return switch (mutation) {
+                case Mutation.Add add -> checkAdd(add.contact());
+                case Mutation.Edit edit -> checkEdit(new ContactState(edit.id(), edit.name(), edit.email(), edit.phoneNumber()));
+                case Mutation.Remove remove -> checkRemove(remove.id());
+            };
+        }
+
+        private MutationOutcome checkAdd(Contact contact) {
+            if (contact == null) {
+                return MutationOutcome.INVALID_FIELD;
+            }
+            ContactState state = ContactState.of(contact);
+            if (!isValid(state)) {      // restored contacts skip validation, so their fields are checked here too
+                return MutationOutcome.INVALID_FIELD;
+            }
+            if (stateOf(state.id()) != null) {
+                return MutationOutcome.ALREADY_EXISTS;
+            }
+            return claim(state, null);
+        }
+
+        private MutationOutcome checkEdit(ContactState state) {
+            if (!isValid(state)) {
+                return MutationOutcome.INVALID_FIELD;
+            }
+            ContactState before = stateOf(state.id());
+            if (before == null) {
+                return MutationOutcome.NOT_FOUND;
+            }
+            return claim(state, before);
+        }
+
+        private MutationOutcome checkRemove(int id) {
+            ContactState before = stateOf(id);
+            if (before == null) {
+                return MutationOutcome.NOT_FOUND;
+            }
+            release(before);
+            pending.put(id, null);
+            return MutationOutcome.SUCCESS;
+        }
+
+        private MutationOutcome claim(ContactState state, ContactState before) {    // before is null for an add
+            String email = ContactKeys.normalizeEmail(state.email());
+            String phoneNumber = ContactKeys.normalizePhoneNumber(state.phoneNumber());
+            Integer emailOwner = ownerOf(email, emailOwners, idsByEmail);
+            if (emailOwner != null && emailOwner != state.id()) {
+                return MutationOutcome.DUPLICATE_EMAIL;
+            }
+            Integer phoneNumberOwner = ownerOf(phoneNumber, phoneNumberOwners, idsByPhoneNumber);
+            if (phoneNumberOwner != null && phoneNumberOwner != state.id()) {
+                return MutationOutcome.DUPLICATE_PHONE;
+            }
+            if (before != null) {
+                release(before);
+            }
+            emailOwners.put(email, state.id());
+            phoneNumberOwners.put(phoneNumber, state.id());
+            pending.put(state.id(), state);
+            return MutationOutcome.SUCCESS;
+        }
+
+        private void release(ContactState state) {
+            emailOwners.put(ContactKeys.normalizeEmail(state.email()), null);
+            phoneNumberOwners.put(ContactKeys.normalizePhoneNumber(state.phoneNumber()), null);
+        }
+
+        private ContactState stateOf(int id) {     // null when the contact is not in the book after the items so far
+            if (pending.containsKey(id)) {
+                return pending.get(id);
+            }
+            Contact contact = findContact(id);
+            return contact == null ? null : ContactState.of(contact);
+        }
+
+        private static Integer ownerOf(String key, HashMap<String, Integer> overlay, HashMap<String, Integer> index) {
+            return overlay.containsKey(key) ? overlay.get(key) : index.get(key);
+        }
+
+        private static boolean isValid(ContactState state) {
+            return ContactValidator.findProblem(state.name(), state.email(), state.phoneNumber()) == null;
+        }
+    }
+
+    private void indexContact(Contact contact, int row) {
+        String email = ContactKeys.normalizeEmail(contact.getEmail());
+        String phoneNumber = ContactKeys.normalizePhoneNumber(contact.getPhoneNumber());
+        idsByEmail.put(email, contact.getId());
+        idsByPhoneNumber.put(phoneNumber, contact.getId());
+        emailTrie.put(email, contact.getId());
+        domainTrie.put(ContactKeys.reversedDomainKey(email), contact.getId());
+        phoneNumberTrie.put(phoneNumber, contact.getId());
+        nameIndex.add(contact.getId(), contact.getName());
+        NameKey nameKey = collator == null ? new NameKey(contact.getName(), contact.getId()) : collator.keyFor(contact.getName(), contact.getId());
+        nameKeys.set(row, nameKey);
+        sortedNames.add(nameKey);
+        fuzzyNames.add(contact.getId(), contact.getName());
+    }
+
+    private void unindexContact(Contact contact, NameKey nameKey) {   // only drops keys still pointing at this contact's id
+        String email = ContactKeys.normalizeEmail(contact.getEmail());
+        String phoneNumber = ContactKeys.normalizePhoneNumber(contact.getPhoneNumber());
+        idsByEmail.remove(email, contact.getId());
+        idsByPhoneNumber.remove(phoneNumber, contact.getId());
+        emailTrie.remove(email, contact.getId());
+        domainTrie.remove(ContactKeys.reversedDomainKey(email), contact.getId());
+        phoneNumberTrie.remove(phoneNumber, contact.getId());
+        nameIndex.remove(contact.getId());
+        sortedNames.remove(nameKey);
+        fuzzyNames.remove(contact.getId());
+    }
+
+
+    private final class ContactList extends AbstractList<Contact> implements RandomAccess {     // what getContacts returns, in the store's row order
+        @Override
+        public Contact get(int index) {
+            return store.contactAt(index);
+        }
+
+        @Override
+        public int size() {
+            return store.size();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.addressbook.app;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.addressbook.app.index.NameKey;
+import com.addressbook.app.index.PersistentSortedMap;
+
+public final class AddressBookSnapshot {
+    // the whole book as it was at one version. Nothing in it ever changes, so it can be read from any number of threads
+    // for as long as needed without locks, and a scan over it never sees half of an edit. That includes its contacts:
+    // their setters throw UnsupportedOperationException, so edits go through VersionedAddressBook.editContact
+
+    static final AddressBookSnapshot EMPTY = new AddressBookSnapshot(0, PersistentSortedMap.empty(), PersistentSortedMap.empty(),
+            PersistentSortedMap.empty(), PersistentSortedMap.empty());
+
+    private final long version;
+    private final PersistentSortedMap<Integer, Contact> contactsById;
+    private final PersistentSortedMap<NameKey, Contact> contactsByName;
+    private final PersistentSortedMap<String, Integer> idsByEmail;          // normalized email -> id
+    private final PersistentSortedMap<String, Integer> idsByPhoneNumber;    // normalized phone number -> id
+
+    AddressBookSnapshot(long version, PersistentSortedMap<Integer, Contact> contactsById, PersistentSortedMap<NameKey, Contact> contactsByName,
+                        PersistentSortedMap<String, Integer> idsByEmail, PersistentSortedMap<String, Integer> idsByPhoneNumber) {
+        this.version = version;
+        this.contactsById = contactsById;
+        this.contactsByName = contactsByName;
+        this.idsByEmail = idsByEmail;
+        this.idsByPhoneNumber = idsByPhoneNumber;
+    }
+
+    public long getVersion() {  // counts the changes made to the book before this snapshot was taken
+        return version;
+    }
+
+    public int size() {
+        return contactsById.size();
+    }
+
+    public Contact findContact(int id) {
+        return contactsById.get(id);
+    }
+
+    public List<Contact> getContacts() {    // in name order
+        List<Contact> result = new ArrayList<>(contactsByName.size());
+        for (Contact contact : contactsByName) {
+            result.add(contact);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public String getAllContacts() {
+        StringBuilder result = new StringBuilder();
+        try {
+            writeAllContacts(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.toString();
+    }
+
+    public void writeAllContacts(Appendable out) throws IOException {
+        if (contactsByName.isEmpty()) {
+            System.err.println("No contacts found");
+            return;
+        }
+        for (Contact contact : contactsByName) {
+            out.append("ID: ").append(String.valueOf(contact.getId()))
+                    .append("Name: ").append(contact.getName())
+                    .append(", Email: ").append(contact.getEmail())
+                    .append(", Phone: ").append(contact.getPhoneNumber())
+                    .append('\n');
+        }
+    }
+
+    public ContactPage getContactsPage(NameKey after, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        Iterator<Contact> contacts = contactsByName.valuesAfter(after);
+        List<Contact> page = new ArrayList<>();
+        Contact last = null;
+        while (page.size() < pageSize && contacts.hasNext()) {
+            last = contacts.next();
+            page.add(last);
+        }
+        return new ContactPage(page, contacts.hasNext() ? nameKey(last) : null);
+    }
+
+    public List<Contact> filterContactsByName(String name) {  // in name order
+        String lowerCaseName = name.toLowerCase();
+        List<Contact> filteredContacts = new ArrayList<>();
+        for (Contact contact : contactsByName) {
+            if (contact.getName().toLowerCase().contains(lowerCaseName)) {
+                filteredContacts.add(contact);
+            }
+        }
+        return filteredContacts;
+    }
+
+    Integer ownerOfEmail(String normalizedEmail) {
+        return idsByEmail.get(normalizedEmail);
+    }
+
+    Integer ownerOfPhoneNumber(String normalizedPhoneNumber) {
+        return idsByPhoneNumber.get(normalizedPhoneNumber);
+    }
+
+    PersistentSortedMap<Integer, Contact> contactsById() {
+        return contactsById;
+    }
+
+    PersistentSortedMap<NameKey, Contact> contactsByName() {
+        return contactsByName;
+    }
+
+    PersistentSortedMap<String, Integer> idsByEmail() {
+        return idsByEmail;
+    }
+
+    PersistentSortedMap<String, Integer> idsByPhoneNumber() {
+        return idsByPhoneNumber;
+    }
+
+    static NameKey nameKey(Contact contact) {
+        return new NameKey(contact.getName(), contact.getId());
+    }
+}
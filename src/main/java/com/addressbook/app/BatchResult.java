@@ -0,0 +1,21 @@
+package com.addressbook.app;
+
+import java.util.List;
+
+public record BatchResult(boolean applied, List<MutationOutcome> outcomes) {
+    // outcomes line up with the batch's items; when applied is false the book was left untouched
+
+    public MutationOutcome outcome(int index) {
+        return outcomes.get(index);
+    }
+
+    public int failureCount() {     // items that failed on their own, not counting the ones aborted with them
+        int failures = 0;
+        for (MutationOutcome outcome : outcomes) {
+            if (!outcome.isSuccess() && outcome != MutationOutcome.ABORTED) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+}
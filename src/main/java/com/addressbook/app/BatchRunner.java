@@ -0,0 +1,141 @@
+package com.addressbook.app;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.validation.ContactValidator;
+
+public class BatchRunner {
+    // runs a command script without the menu: one command per line, arguments separated by '|', for example
+    //   add|John Smith|jsmith@email.com|1234567890
+    //   edit|1|John Smith|john@email.com|1234567890
+    //   remove|1
+    //   search|smi
+    //   list
+    //   deleteall
+    //   stats
+    // blank lines and lines starting with # are skipped. Everything is written to out, which the caller should buffer;
+    // failures are reported as "Line <n>: <reason>" and do not stop the script
+
+    private static final String SEPARATOR = "\\|";
+
+    private final AddressBook addressBook;
+    private final Writer out;
+
+    public BatchRunner(AddressBook addressBook, Writer out) {
+        this.addressBook = addressBook;
+        this.out = out;
+    }
+
+    public BatchSummary run(BufferedReader script) throws IOException {
+        long start = System.nanoTime();
+        long operations = 0;
+        long failures = 0;
+        long lineNumber = 0;
+        String line;
+        while ((line = script.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            operations++;
+            String failure;
+            try {
+                failure = execute(line.split(SEPARATOR, -1));
+            } catch (ValidationException | IllegalArgumentException e) {
+                failure = e.getMessage();
+            }
+            if (failure != null) {
+                failures++;
+                out.append("Line ").append(String.valueOf(lineNumber)).append(": ").append(failure).append('\n');
+            }
+        }
+        BatchSummary summary = new BatchSummary(operations, failures, System.nanoTime() - start);
+        out.append(String.format("Executed %d operations, %d failed, in %.1f ms (%.0f operations per second)%n",
+                summary.operations(), summary.failures(), summary.elapsedNanos() / 1_000_000.0, summary.operationsPerSecond()));
+        out.flush();
+        return summary;
+    }
+
+    private String execute(String[] fields) throws IOException {     // returns why the command failed, or null
+        String command = fields[0].trim().toLowerCase(Locale.ROOT);
+        switch (command) {
+            case "add" -> {
+                expectArguments(fields, 3);
+                return describe(addressBook.tryAddContact(new Contact(fields[1], fields[2], fields[3])), 0);
+            }
+            case "edit" -> {
+                expectArguments(fields, 4);
+                int id = parseId(fields[1]);
+                MutationOutcome outcome = addressBook.tryEditContact(id, fields[2], fields[3], fields[4]);
+                if (outcome == MutationOutcome.INVALID_FIELD) {
+                    return ContactValidator.findProblem(fields[2], fields[3], fields[4]);
+                }
+                return describe(outcome, id);
+            }
+            case "remove" -> {
+                expectArguments(fields, 1);
+                int id = parseId(fields[1]);
+                return describe(addressBook.tryRemoveContact(id), id);
+            }
+            case "search" -> {
+                expectArguments(fields, 1);
+                List<Contact> matches = addressBook.filterContactsByName(fields[1]);
+                for (Contact contact : matches) {
+                    out.append("Name: ").append(contact.getName())
+                            .append(", Email: ").append(contact.getEmail())
+                            .append(", Phone: ").append(contact.getPhoneNumber())
+                            .append('\n');
+                }
+                return null;
+            }
+            case "list" -> {
+                expectArguments(fields, 0);
+                addressBook.writeContacts(addressBook.sortedContacts(), out);
+                return null;
+            }
+            case "deleteall" -> {
+                expectArguments(fields, 0);
+                if (!addressBook.getContacts().isEmpty()) {
+                    addressBook.clear();
+                    out.append("All contacts have been deleted.\n");
+                }
+                return null;
+            }
+            case "stats" -> {
+                expectArguments(fields, 0);
+                addressBook.getMetrics().writeReport(out);
+                return null;
+            }
+            default -> {
+                return "Unknown command: " + fields[0];
+            }
+        }
+    }
+
+    private static String describe(MutationOutcome outcome, int id) {
+        return switch (outcome) {
+            case SUCCESS -> null;
+            case NOT_FOUND -> "Contact " + id + " not found";
+            default -> outcome.getMessage();
+        };
+    }
+
+    private static void expectArguments(String[] fields, int count) {
+        if (fields.length - 1 != count) {
+            throw new IllegalArgumentException(fields[0].trim() + " expects " + count + " argument" + (count == 1 ? "" : "s") + " but got " + (fields.length - 1));
+        }
+    }
+
+    private static int parseId(String field) {
+        try {
+            return Integer.parseInt(field.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a contact id: " + field);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.addressbook.app;
+
+public record BatchSummary(long operations, long failures, long elapsedNanos) {
+
+    public double operationsPerSecond() {
+        return elapsedNanos <= 0 ? 0 : operations * 1_000_000_000.0 / elapsedNanos;
+    }
+}
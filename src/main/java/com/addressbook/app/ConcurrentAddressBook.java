@@ -0,0 +1,339 @@
+package com.addressbook.app;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.index.ContactKeys;
+import com.addressbook.app.index.NameKey;
+import com.addressbook.app.validation.ContactValidator;
+
+public class ConcurrentAddressBook {    // thread-safe address book: reads never lock, uniqueness is claimed per key with putIfAbsent
+    // a stored contact is never changed: an edit publishes an edited copy with one put, so readers see all old or all new fields.
+    // contactsById decides which contact is current, and the name index can briefly hold an entry for both, so readers only
+    // show an entry whose name matches the current contact's. Listings are weakly consistent: one that runs while a contact
+    // is renamed may meet it at its old place, its new place, both or neither
+
+    private static final int LOCK_STRIPES = 64;     // writers to the same id take the same stripe
+
+    private final ConcurrentHashMap<Integer, Contact> contactsById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> idsByEmail = new ConcurrentHashMap<>();         // normalized email -> id of the contact that owns it
+    private final ConcurrentHashMap<String, Integer> idsByPhoneNumber = new ConcurrentHashMap<>();   // normalized phone number -> owning id
+    private final ConcurrentSkipListMap<NameKey, String> sortedNames = new ConcurrentSkipListMap<>();   // (name, id) -> lower case name
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ConcurrentAddressBook() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public void addContact(Contact contact) {   // the book keeps this contact until it is edited; change it through editContact, not its setters
+        switch (tryAddContact(contact)) {
+            case ALREADY_EXISTS -> System.err.println("Failed to add contact: contact already exists");
+            case DUPLICATE_EMAIL -> throw new ValidationException(MutationOutcome.DUPLICATE_EMAIL.getMessage());
+            case DUPLICATE_PHONE -> throw new ValidationException(MutationOutcome.DUPLICATE_PHONE.getMessage());
+            case INVALID_FIELD -> System.err.println("Failed to add contact: contact is null");
+            default -> { }
+        }
+    }
+
+    public MutationOutcome tryAddContact(Contact contact) {    // never throws or prints; the check and the insert are one step under the contact's lock
+        if (contact == null) {
+            return MutationOutcome.INVALID_FIELD;
+        }
+        int id = contact.getId();
+        synchronized (lockFor(id)) {
+            if (contactsById.containsKey(id)) {
+                return MutationOutcome.ALREADY_EXISTS;
+            }
+            String email = ContactKeys.normalizeEmail(contact.getEmail());
+            String phoneNumber = ContactKeys.normalizePhoneNumber(contact.getPhoneNumber());
+            MutationOutcome outcome = claimKeys(id, email, phoneNumber);
+            if (outcome.isSuccess()) {
+                sortedNames.put(nameKey(contact), contact.getName().toLowerCase());
+                contactsById.put(id, contact);
+            }
+            return outcome;
+        }
+    }
+
+    public void removeContact(int id) {
+        if (tryRemoveContact(id) == MutationOutcome.NOT_FOUND) {
+            System.err.println("Failed to remove contact: contact not found");
+        }
+    }
+
+    public MutationOutcome tryRemoveContact(int id) {
+        synchronized (lockFor(id)) {
+            Contact contact = contactsById.remove(id);
+            if (contact == null) {
+                return MutationOutcome.NOT_FOUND;
+            }
+            unindex(contact);
+            return MutationOutcome.SUCCESS;
+        }
+    }
+
+    public void editContact(int id, String name, String email, String phoneNumber) {
+        switch (tryEditContact(id, name, email, phoneNumber)) {
+            case NOT_FOUND -> System.err.println("Failed to edit contact: contact not found");
+            case DUPLICATE_EMAIL -> throw new ValidationException(MutationOutcome.DUPLICATE_EMAIL.getMessage());
+            case DUPLICATE_PHONE -> throw new ValidationException(MutationOutcome.DUPLICATE_PHONE.getMessage());
+            case INVALID_FIELD -> throw new ValidationException(ContactValidator.findProblem(name, email, phoneNumber));
+            default -> { }
+        }
+    }
+
+    public MutationOutcome tryEditContact(int id, String name, String email, String phoneNumber) {
+        // replaces the contact with an edited copy, so a Contact read before the edit keeps its old fields
+        if (ContactValidator.findProblem(name, email, phoneNumber) != null) {    // checked up front so the contact is never left half edited
+            return MutationOutcome.INVALID_FIELD;
+        }
+        synchronized (lockFor(id)) {
+            Contact contact = contactsById.get(id);
+            if (contact == null) {
+                return MutationOutcome.NOT_FOUND;
+            }
+            String oldEmail = ContactKeys.normalizeEmail(contact.getEmail());
+            String oldPhoneNumber = ContactKeys.normalizePhoneNumber(contact.getPhoneNumber());
+            String newEmail = ContactKeys.normalizeEmail(email);
+            String newPhoneNumber = ContactKeys.normalizePhoneNumber(phoneNumber);
+            MutationOutcome outcome = claimKeys(id, newEmail, newPhoneNumber);
+            if (!outcome.isSuccess()) {
+                return outcome;
+            }
+            Contact edited = contact.withFields(name, email, phoneNumber);
+            NameKey oldKey = nameKey(contact);
+            NameKey newKey = nameKey(edited);
+            sortedNames.put(newKey, name.toLowerCase());    // hidden from readers until the put below makes the edit current
+            contactsById.put(id, edited);
+            if (!newKey.equals(oldKey)) {
+                sortedNames.remove(oldKey);
+            }
+            if (!oldEmail.equals(newEmail)) {
+                idsByEmail.remove(oldEmail, id);
+            }
+            if (!oldPhoneNumber.equals(newPhoneNumber)) {
+                idsByPhoneNumber.remove(oldPhoneNumber, id);
+            }
+            return MutationOutcome.SUCCESS;
+        }
+    }
+
+    public MutationOutcome checkAdd(Contact contact) {
+        // what addContact would do right now, without changing anything; only reliable while the caller keeps other writers out
+        if (contact == null) {
+            return MutationOutcome.INVALID_FIELD;
+        }
+        if (contactsById.containsKey(contact.getId())) {
+            return MutationOutcome.ALREADY_EXISTS;
+        }
+        return checkKeys(contact.getId(), contact.getEmail(), contact.getPhoneNumber());
+    }
+
+    public MutationOutcome checkEdit(int id, String name, String email, String phoneNumber) {   // likewise for editContact
+        if (ContactValidator.findProblem(name, email, phoneNumber) != null) {
+            return MutationOutcome.INVALID_FIELD;
+        }
+        if (!contactsById.containsKey(id)) {
+            return MutationOutcome.NOT_FOUND;
+        }
+        return checkKeys(id, email, phoneNumber);
+    }
+
+    public Contact findContact(int id) {
+        return contactsById.get(id);
+    }
+
+    public int size() {
+        return contactsById.size();
+    }
+
+    public List<Contact> getContacts() {    // a copy in name order, later changes are not reflected
+        List<Contact> result = new ArrayList<>(contactsById.size());
+        for (NameKey key : sortedNames.keySet()) {
+            Contact contact = current(key);
+            if (contact != null) {
+                result.add(contact);
+            }
+        }
+        return result;
+    }
+
+    public String getAllContacts() {
+        StringBuilder result = new StringBuilder();
+        try {
+            writeAllContacts(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.toString();
+    }
+
+    public void writeAllContacts(Appendable out) throws IOException {
+        if (contactsById.isEmpty()) {
+            System.err.println("No contacts found");
+            return;
+        }
+        for (NameKey key : sortedNames.keySet()) {
+            Contact contact = current(key);
+            if (contact == null) {
+                continue;
+            }
+            out.append("ID: ").append(String.valueOf(contact.getId()))
+                    .append("Name: ").append(contact.getName())
+                    .append(", Email: ").append(contact.getEmail())
+                    .append(", Phone: ").append(contact.getPhoneNumber())
+                    .append('\n');
+        }
+    }
+
+    public ContactPage getContactsPage(NameKey after, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        NavigableSet<NameKey> view = after == null ? sortedNames.keySet() : sortedNames.keySet().tailSet(after, false);
+        Iterator<NameKey> keys = view.iterator();
+        List<Contact> page = new ArrayList<>();
+        NameKey last = null;
+        while (page.size() < pageSize && keys.hasNext()) {
+            NameKey key = keys.next();
+            Contact contact = current(key);
+            if (contact != null) {
+                last = key;
+                page.add(contact);
+            }
+        }
+        return new ContactPage(page, keys.hasNext() ? last : null);
+    }
+
+    public List<Contact> filterContactsByName(String name) {  // walks the skip list in name order, so results need no sort and no lock
+        String lowerCaseName = name.toLowerCase();
+        List<Contact> filteredContacts = new ArrayList<>();
+        for (Map.Entry<NameKey, String> entry : sortedNames.entrySet()) {
+            if (entry.getValue().contains(lowerCaseName)) {
+                Contact contact = current(entry.getKey());
+                if (contact != null) {
+                    filteredContacts.add(contact);
+                }
+            }
+        }
+        return filteredContacts;
+    }
+
+    public SearchResults findContactsByName(String name, int offset, int limit) {
+        // the window [offset, offset + limit) of filterContactsByName's results, reading names in order and stopping one match past it
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset must not be negative and limit must be positive");
+        }
+        String lowerCaseName = name.toLowerCase();
+        long end = (long) offset + limit;
+        List<Contact> window = new ArrayList<>(Math.min(limit, contactsById.size()));
+        int scanned = 0;
+        int found = 0;
+        boolean more = false;
+        for (Map.Entry<NameKey, String> entry : sortedNames.entrySet()) {
+            scanned++;
+            if (entry.getValue().contains(lowerCaseName)) {
+                Contact contact = current(entry.getKey());
+                if (contact == null) {
+                    continue;
+                }
+                if (found >= end) {
+                    more = true;
+                    break;
+                }
+                if (found >= offset) {
+                    window.add(contact);
+                }
+                found++;
+            }
+        }
+        if (!more) {
+            return new SearchResults(window, offset, found, true);
+        }
+        int size = contactsById.size();
+        int estimate = (int) Math.min(size, (long) found * size / scanned);     // assumes the rest of the book matches at the same rate
+        return new SearchResults(window, offset, Math.max(estimate, found + 1), false);
+    }
+
+    public void searchContacts(String name) {
+        for (Contact contact : filterContactsByName(name)) {
+            System.out.println("Name: " + contact.getName() + ", Email: " + contact.getEmail() + ", Phone: " + contact.getPhoneNumber());
+        }
+    }
+
+    public void deleteAll() {
+        if (contactsById.isEmpty()) {
+            System.err.println("No contacts found");
+            return;
+        }
+        clear();
+        System.out.println("All contacts have been deleted.");
+    }
+
+    public void clear() {   // removes contacts one by one, so concurrent adds are either kept whole or removed whole
+        for (Integer id : contactsById.keySet()) {
+            synchronized (lockFor(id)) {
+                Contact contact = contactsById.remove(id);
+                if (contact != null) {
+                    unindex(contact);
+                }
+            }
+        }
+    }
+
+    private Contact current(NameKey key) {     // the contact behind a name index entry, or null if the entry is stale or removed
+        Contact contact = contactsById.get(key.id());
+        return contact != null && contact.getName().equals(key.name()) ? contact : null;
+    }
+
+    private void unindex(Contact contact) {     // called under the contact's lock, once it is gone from contactsById
+        sortedNames.remove(nameKey(contact));
+        idsByEmail.remove(ContactKeys.normalizeEmail(contact.getEmail()), contact.getId());
+        idsByPhoneNumber.remove(ContactKeys.normalizePhoneNumber(contact.getPhoneNumber()), contact.getId());
+    }
+
+    private Object lockFor(int id) {
+        return locks[(id * 0x9E3779B9) >>> 26];     // top 6 bits of the mixed id, one of LOCK_STRIPES
+    }
+
+    private MutationOutcome checkKeys(int id, String email, String phoneNumber) {
+        Integer emailOwner = idsByEmail.get(ContactKeys.normalizeEmail(email));
+        if (emailOwner != null && emailOwner != id) {
+            return MutationOutcome.DUPLICATE_EMAIL;
+        }
+        Integer phoneOwner = idsByPhoneNumber.get(ContactKeys.normalizePhoneNumber(phoneNumber));
+        if (phoneOwner != null && phoneOwner != id) {
+            return MutationOutcome.DUPLICATE_PHONE;
+        }
+        return MutationOutcome.SUCCESS;
+    }
+
+    private MutationOutcome claimKeys(int id, String email, String phoneNumber) {    // claims both keys or neither
+        Integer emailOwner = idsByEmail.putIfAbsent(email, id);
+        if (emailOwner != null && emailOwner != id) {
+            return MutationOutcome.DUPLICATE_EMAIL;
+        }
+        Integer phoneOwner = idsByPhoneNumber.putIfAbsent(phoneNumber, id);
+        if (phoneOwner != null && phoneOwner != id) {
+            if (emailOwner == null) {
+                idsByEmail.remove(email, id);     // give back the email we just claimed
+            }
+            return MutationOutcome.DUPLICATE_PHONE;
+        }
+        return MutationOutcome.SUCCESS;
+    }
+
+    private static NameKey nameKey(Contact contact) {
+        return new NameKey(contact.getName(), contact.getId());
+    }
+}
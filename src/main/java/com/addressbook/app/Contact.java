@@ -1,12 +1,13 @@
 package com.addressbook.app;
 
 import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.validation.ContactValidator;
 
 public class Contact {
     private String name;
     private String email;
     private String phoneNumber;
-    private static int nextId = 1;
+    private static final IdAllocator ID_ALLOCATOR = new IdAllocator();
     private int id = 0;
 
     public Contact(String name, String email, String phoneNumber) {
@@ -14,13 +15,40 @@ public class Contact {
             this.name = name;
             this.email = email;
             this.phoneNumber = phoneNumber;
-            this.id = nextId;
-            nextId++;
+            this.id = ID_ALLOCATOR.nextId();
         } else {
             throw new ValidationException("Cannot add null values to address book");
         }
     }
 
+    private Contact(int id, String name, String email, String phoneNumber) {
+        this.name = name;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.id = id;
+    }
+
+    Contact withFields(String name, String email, String phoneNumber) {  // a copy under the same id, the fields are trusted and not validated again
+        return new Contact(id, name, email, phoneNumber);
+    }
+
+    protected Contact(int id) {     // for subclasses that supply their own fields
+        this.id = id;
+    }
+
+    public static Contact restore(int id, String name, String email, String phoneNumber) {  // rebuilds a saved contact with its original id, the fields are trusted and not validated again
+        ID_ALLOCATOR.advancePast(id);
+        return new Contact(id, name, email, phoneNumber);
+    }
+
+    public static void advanceIdsPast(int id) {   // no id up to and including this one will be handed to a new contact
+        ID_ALLOCATOR.advancePast(id);
+    }
+
+    public static int getIdHighWaterMark() {
+        return ID_ALLOCATOR.getHighWaterMark();
+    }
+
     public String getName() {
         return name;
     }
@@ -38,47 +66,47 @@ public class Contact {
     }
 
     public void setName(String name) {
-        validateName(name);
+        ContactValidator.timed(() -> validateName(name));
         this.name = name;
     }
 
     public void setEmail(String email) {
-        validateEmail(email);
+        ContactValidator.timed(() -> validateEmail(email));
         this.email = email;
     }
 
     public void setPhoneNumber(String phoneNumber) {
-        validatePhoneNumber(phoneNumber);
+        ContactValidator.timed(() -> validatePhoneNumber(phoneNumber));
         this.phoneNumber = phoneNumber;
     }
 
-    private boolean validateInput(String name, String email, String phoneNumber) {     // TODO: possibly move validation to a separate class
-        validateName(name);
-        validateEmail(email);
-        validatePhoneNumber(phoneNumber);
+    void assignFields(String name, String email, String phoneNumber) {     // for the book, once it has validated the edit itself
+        this.name = name;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+    }
+
+    private boolean validateInput(String name, String email, String phoneNumber) {    // timed as one validation, the setters count one each
+        ContactValidator.timed(() -> {
+            validateName(name);
+            validateEmail(email);
+            validatePhoneNumber(phoneNumber);
+        });
         return true;
     }
 
     private void validateName(String name) {
-        if (name.trim().isEmpty()){
-            throw new ValidationException("Name must not be empty");
-        }
+        ContactValidator.validateName(name);
     }
 
     private void validateEmail(String email) {
-        // regular expression checks to see if email contains @, and a "." followed by any top level domain (com, org, net, etc)
-        String emailRegex = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$";
-        if (!email.matches(emailRegex)){
-            throw new ValidationException("Invalid email format");
-        }
+        // checks the email contains @, and a "." followed by any top level domain (com, org, net, etc)
+        ContactValidator.validateEmail(email);
     }
 
     private void validatePhoneNumber(String phoneNumber) {
-        // regular expression checks to see if phone number meets most common phone number formats globally
-        String phoneRegex = "^[\\+]?[(]?[0-9]{3}[)]?[-\\s\\.]?[0-9]{3}[-\\s\\.]?[0-9]{4,6}$";
-        if (!phoneNumber.matches(phoneRegex)){
-            throw new ValidationException("Invalid phone number format");
-        }
+        // checks the phone number meets most common phone number formats globally
+        ContactValidator.validatePhoneNumber(phoneNumber);
     }
 
     private boolean checkIsNotNull(String name, String email, String phoneNumber) {
@@ -0,0 +1,57 @@
+package com.addressbook.app;
+
+import java.util.ArrayList;
+
+import com.addressbook.app.index.IntIntHashMap;
+import com.addressbook.app.store.ContactStore;
+
+final class ContactListStore implements ContactStore {     // AddressBook's default: keeps the very Contact objects it is given
+
+    private final ArrayList<Contact> contacts = new ArrayList<>();
+    private final IntIntHashMap rowsById = new IntIntHashMap();     // contact id -> position in contacts
+
+    @Override
+    public int size() {
+        return contacts.size();
+    }
+
+    @Override
+    public int rowOf(int id) {
+        int row = rowsById.get(id);
+        return row == IntIntHashMap.NO_VALUE ? NO_ROW : row;
+    }
+
+    @Override
+    public Contact contactAt(int row) {
+        return contacts.get(row);
+    }
+
+    @Override
+    public int append(Contact contact) {
+        rowsById.put(contact.getId(), contacts.size());
+        contacts.add(contact);
+        return contacts.size() - 1;
+    }
+
+    @Override
+    public void updateRow(int row, String name, String email, String phoneNumber) {     // edits the object in place, so callers holding it see the change
+        contacts.get(row).assignFields(name, email, phoneNumber);
+    }
+
+    @Override
+    public void removeRow(int row) {
+        Contact contact = contacts.get(row);
+        Contact last = contacts.remove(contacts.size() - 1);  // swap-remove: move the last contact into the freed row instead of shifting the list
+        rowsById.remove(contact.getId());
+        if (last != contact) {
+            contacts.set(row, last);
+            rowsById.put(last.getId(), row);
+        }
+    }
+
+    @Override
+    public void clear() {
+        contacts.clear();
+        rowsById.clear();
+    }
+}
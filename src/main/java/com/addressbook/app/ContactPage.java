@@ -0,0 +1,12 @@
+package com.addressbook.app;
+
+import java.util.List;
+
+import com.addressbook.app.index.NameKey;
+
+public record ContactPage(List<Contact> contacts, NameKey nextCursor) {   // one page of contacts in name order, nextCursor is null on the last page
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
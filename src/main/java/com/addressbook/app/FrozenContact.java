@@ -0,0 +1,49 @@
+package com.addressbook.app;
+
+final class FrozenContact extends Contact {     // an unchangeable copy of a contact, shared by every snapshot that contains it
+
+    private final String name;
+    private final String email;
+    private final String phoneNumber;
+
+    FrozenContact(int id, String name, String email, String phoneNumber) {
+        super(id);
+        this.name = name;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    @Override
+    public void setName(String name) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setEmail(String email) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPhoneNumber(String phoneNumber) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Contacts in a snapshot are read-only, edit them through the address book");
+    }
+}
@@ -0,0 +1,69 @@
+package com.addressbook.app;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class IdAllocator {  // lock-free id source: threads take ids from striped blocks, and only refilling a block touches the shared counter
+
+    private static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final AtomicInteger nextBlockStart;
+    private final AtomicLongArray stripes;     // per stripe: next id in the high 32 bits, end of its block (exclusive) in the low 32 bits
+    private final int blockSize;
+
+    public IdAllocator() {
+        this(1, DEFAULT_BLOCK_SIZE);
+    }
+
+    public IdAllocator(int firstId, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.nextBlockStart = new AtomicInteger(firstId);
+        this.blockSize = blockSize;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2) - 1) << 1;
+        this.stripes = new AtomicLongArray(stripeCount);
+    }
+
+    public int nextId() {
+        int stripe = (int) Thread.currentThread().threadId() & (stripes.length() - 1);
+        while (true) {
+            long block = stripes.get(stripe);
+            int next = (int) (block >>> 32);
+            int end = (int) block;
+            if (next < end) {
+                if (stripes.compareAndSet(stripe, block, pack(next + 1, end))) {
+                    return next;
+                }
+            } else {
+                int start = nextBlockStart.getAndAdd(blockSize);
+                stripes.compareAndSet(stripe, block, pack(start + 1, start + blockSize));  // if another thread refilled the stripe first, the rest of this block is skipped
+                return start;
+            }
+        }
+    }
+
+    public void advancePast(int id) {   // makes sure no id up to and including this one is handed out again, e.g. after restoring saved contacts
+        int current = nextBlockStart.get();
+        while (current <= id && !nextBlockStart.compareAndSet(current, id + 1)) {
+            current = nextBlockStart.get();
+        }
+        for (int stripe = 0; stripe < stripes.length(); stripe++) {
+            long block = stripes.get(stripe);
+            while ((int) (block >>> 32) <= id && (int) block > (int) (block >>> 32)) {
+                if (stripes.compareAndSet(stripe, block, 0L)) {
+                    break;
+                }
+                block = stripes.get(stripe);
+            }
+        }
+    }
+
+    public int getHighWaterMark() {  // every id handed out so far is below this value
+        return nextBlockStart.get();
+    }
+
+    private static long pack(int next, int end) {
+        return ((long) next << 32) | (end & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,23 @@
+package com.addressbook.app;
+
+public sealed interface Mutation permits Mutation.Add, Mutation.Edit, Mutation.Remove {
+    // one item of a batch passed to AddressBook.applyBatch
+
+    record Add(Contact contact) implements Mutation {}
+
+    record Edit(int id, String name, String email, String phoneNumber) implements Mutation {}
+
+    record Remove(int id) implements Mutation {}
+
+    static Mutation add(Contact contact) {
+        return new Add(contact);
+    }
+
+    static Mutation edit(int id, String name, String email, String phoneNumber) {
+        return new Edit(id, name, email, phoneNumber);
+    }
+
+    static Mutation remove(int id) {
+        return new Remove(id);
+    }
+}
@@ -0,0 +1,25 @@
+package com.addressbook.app;
+
+public enum MutationOutcome {
+    SUCCESS("Done"),
+    ALREADY_EXISTS("Contact already exists"),       // an add whose contact id is already in the book
+    DUPLICATE_EMAIL("Email already exists"),
+    DUPLICATE_PHONE("Phone number already exists"),
+    NOT_FOUND("Contact not found"),
+    INVALID_FIELD("Invalid field"),
+    ABORTED("Not applied, another item in the batch failed");  // the item was fine, but nothing in its batch was applied
+
+    private final String message;
+
+    MutationOutcome(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
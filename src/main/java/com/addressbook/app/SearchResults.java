@@ -0,0 +1,11 @@
+package com.addressbook.app;
+
+import java.util.List;
+
+public record SearchResults(List<Contact> contacts, int offset, int totalEstimate, boolean exactTotal) {
+    // one window of search results in name order; totalEstimate is extrapolated from the part of the book that was read when exactTotal is false
+
+    public boolean hasMore() {
+        return offset + contacts.size() < totalEstimate;
+    }
+}
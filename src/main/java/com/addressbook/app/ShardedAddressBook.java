@@ -0,0 +1,376 @@
+package com.addressbook.app;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.index.ContactKeys;
+import com.addressbook.app.index.NameKey;
+import com.addressbook.app.validation.ContactValidator;
+
+public class ShardedAddressBook {
+    // contacts are spread over independent AddressBook shards by a hash of their id, each behind its own read-write lock,
+    // so writers to different shards never wait for each other. Email and phone number uniqueness is book-wide: a key is
+    // claimed in one shared map with putIfAbsent before any shard is touched. Searches and listings run on every shard at
+    // once on a fork-join pool, the common pool unless one is given, and the shards' sorted results are k-way merged
+    // into name order
+
+    private final AddressBook[] shards;
+    private final ReentrantReadWriteLock[] locks;
+    private final ForkJoinPool pool;
+    private final ConcurrentHashMap<String, Integer> idsByEmail = new ConcurrentHashMap<>();         // normalized email -> id of the contact that owns it
+    private final ConcurrentHashMap<String, Integer> idsByPhoneNumber = new ConcurrentHashMap<>();   // normalized phone number -> owning id
+
+    public ShardedAddressBook() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ShardedAddressBook(int shardCount) {
+        this(shardCount, ForkJoinPool.commonPool());
+    }
+
+    public ShardedAddressBook(int shardCount, ForkJoinPool pool) {
+        this(shardCount, pool, AddressBook.DEFAULT_LOCALE);
+    }
+
+    public ShardedAddressBook(int shardCount, ForkJoinPool pool, Locale locale) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.shards = new AddressBook[shardCount];
+        this.locks = new ReentrantReadWriteLock[shardCount];
+        this.pool = pool;
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new AddressBook(0, locale);     // no search cache: it is not safe under a shared read lock, and the shards are searched in parallel anyway
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public void addContact(Contact contact) {
+        if (contact == null) {
+            System.err.println("Failed to add contact: contact is null");
+            return;
+        }
+        int id = contact.getId();
+        String email = ContactKeys.normalizeEmail(contact.getEmail());
+        String phoneNumber = ContactKeys.normalizePhoneNumber(contact.getPhoneNumber());
+        int shard = shardOf(id);
+        claimKeys(id, email, phoneNumber);      // throws if another contact owns either key
+        locks[shard].writeLock().lock();
+        try {   // keys are given back under the shard's lock, so they cannot race with an edit of the same contact
+            if (shards[shard].findContact(id) != null) {
+                System.err.println("Failed to add contact: contact already exists");
+                return;     // the keys are the stored contact's own, so there is nothing to give back
+            }
+            boolean added = false;
+            try {
+                shards[shard].addContact(contact);
+                added = shards[shard].findContact(id) != null;
+            } finally {
+                if (!added) {
+                    releaseKeys(id, email, phoneNumber);
+                }
+            }
+        } finally {
+            locks[shard].writeLock().unlock();
+        }
+    }
+
+    public void removeContact(int id) {
+        int shard = shardOf(id);
+        locks[shard].writeLock().lock();
+        try {
+            Contact removed = shards[shard].findContact(id);
+            if (removed == null) {
+                System.err.println("Failed to remove contact: contact not found");
+                return;
+            }
+            shards[shard].removeContact(id);
+            releaseKeys(id, ContactKeys.normalizeEmail(removed.getEmail()), ContactKeys.normalizePhoneNumber(removed.getPhoneNumber()));
+        } finally {
+            locks[shard].writeLock().unlock();
+        }
+    }
+
+    public void editContact(int id, String name, String email, String phoneNumber) {
+        ContactValidator.validateName(name);       // validate up front so the contact is never left half edited
+        ContactValidator.validateEmail(email);
+        ContactValidator.validatePhoneNumber(phoneNumber);
+        String newEmail = ContactKeys.normalizeEmail(email);
+        String newPhoneNumber = ContactKeys.normalizePhoneNumber(phoneNumber);
+        int shard = shardOf(id);
+        claimKeys(id, newEmail, newPhoneNumber);
+        locks[shard].writeLock().lock();
+        try {
+            Contact contact = shards[shard].findContact(id);
+            if (contact == null) {
+                releaseKeys(id, newEmail, newPhoneNumber);
+                System.err.println("Failed to edit contact: contact not found");
+                return;
+            }
+            String oldEmail = ContactKeys.normalizeEmail(contact.getEmail());
+            String oldPhoneNumber = ContactKeys.normalizePhoneNumber(contact.getPhoneNumber());
+            shards[shard].editContact(id, name, email, phoneNumber);
+            if (!oldEmail.equals(newEmail)) {
+                idsByEmail.remove(oldEmail, id);
+            }
+            if (!oldPhoneNumber.equals(newPhoneNumber)) {
+                idsByPhoneNumber.remove(oldPhoneNumber, id);
+            }
+        } finally {
+            locks[shard].writeLock().unlock();
+        }
+    }
+
+    public void deleteAll() {
+        if (size() == 0) {
+            System.err.println("No contacts found");
+            return;
+        }
+        clear();
+        System.out.println("All contacts have been deleted.");
+    }
+
+    public void clear() {   // one shard at a time, so a concurrent add to a shard already cleared is kept
+        for (int shard = 0; shard < shards.length; shard++) {
+            locks[shard].writeLock().lock();
+            try {
+                for (Contact contact : new ArrayList<>(shards[shard].getContacts())) {
+                    shards[shard].removeContact(contact.getId());
+                    releaseKeys(contact.getId(), ContactKeys.normalizeEmail(contact.getEmail()), ContactKeys.normalizePhoneNumber(contact.getPhoneNumber()));
+                }
+            } finally {
+                locks[shard].writeLock().unlock();
+            }
+        }
+    }
+
+    public Contact findContact(int id) {
+        int shard = shardOf(id);
+        locks[shard].readLock().lock();
+        try {
+            return shards[shard].findContact(id);
+        } finally {
+            locks[shard].readLock().unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (int shard = 0; shard < shards.length; shard++) {
+            locks[shard].readLock().lock();
+            try {
+                size += shards[shard].getContacts().size();
+            } finally {
+                locks[shard].readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    public List<Contact> getContacts() {    // a copy in name order
+        return merge(onEveryShard(shard -> {
+            List<Contact> contacts = new ArrayList<>();
+            shard.sortedContacts().forEach(contacts::add);
+            return SortedRun.of(shard, contacts);
+        }), Integer.MAX_VALUE).contacts();
+    }
+
+    public String getAllContacts() {
+        StringBuilder result = new StringBuilder();
+        try {
+            writeAllContacts(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.toString();
+    }
+
+    public void writeAllContacts(Appendable out) throws IOException {
+        List<Contact> contacts = getContacts();
+        if (contacts.isEmpty()) {
+            System.err.println("No contacts found");
+            return;
+        }
+        for (Contact contact : contacts) {
+            out.append("ID: ").append(String.valueOf(contact.getId()))
+                    .append("Name: ").append(contact.getName())
+                    .append(", Email: ").append(contact.getEmail())
+                    .append(", Phone: ").append(contact.getPhoneNumber())
+                    .append('\n');
+        }
+    }
+
+    public ContactPage getContactsPage(NameKey after, int pageSize) {
+        // every shard returns its own next page, and the first pageSize of their union is the book's next page
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        List<ShardAnswer<ContactPage>> answers = onEveryShard(shard -> {
+            ContactPage page = shard.getContactsPage(after, pageSize);
+            return new ShardAnswer<>(page, SortedRun.of(shard, page.contacts()));
+        });
+        List<SortedRun> pages = new ArrayList<>(answers.size());
+        int available = 0;
+        boolean shardHasMore = false;
+        for (ShardAnswer<ContactPage> answer : answers) {
+            pages.add(answer.run());
+            available += answer.answer().contacts().size();
+            shardHasMore |= answer.answer().hasMore();
+        }
+        SortedRun page = merge(pages, pageSize);
+        boolean more = shardHasMore || available > page.contacts().size();
+        NameKey last = page.keys().isEmpty() ? null : page.keys().get(page.keys().size() - 1);
+        return new ContactPage(page.contacts(), more ? last : null);
+    }
+
+    public List<Contact> filterContactsByName(String name) {  // every match in name order
+        return merge(onEveryShard(shard -> SortedRun.of(shard, shard.filterContactsByName(name))), Integer.MAX_VALUE).contacts();
+    }
+
+    public SearchResults findContactsByName(String name, int offset, int limit) {
+        // each shard supplies its first offset + limit matches, which must include every match in the book's window
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset must not be negative and limit must be positive");
+        }
+        int wanted = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        List<ShardAnswer<SearchResults>> answers = onEveryShard(shard -> {
+            SearchResults result = shard.findContactsByName(name, 0, wanted);
+            return new ShardAnswer<>(result, SortedRun.of(shard, result.contacts()));
+        });
+        List<SortedRun> runs = new ArrayList<>(answers.size());
+        long total = 0;
+        boolean exact = true;
+        for (ShardAnswer<SearchResults> answer : answers) {
+            runs.add(answer.run());
+            total += answer.answer().totalEstimate();
+            exact &= answer.answer().exactTotal();
+        }
+        List<Contact> first = merge(runs, wanted).contacts();
+        return new SearchResults(first.subList(Math.min(offset, first.size()), first.size()), offset, (int) Math.min(Integer.MAX_VALUE, total), exact);
+    }
+
+    public void searchContacts(String name) {
+        for (Contact contact : filterContactsByName(name)) {
+            System.out.println("Name: " + contact.getName() + ", Email: " + contact.getEmail() + ", Phone: " + contact.getPhoneNumber());
+        }
+    }
+
+    private <T> List<T> onEveryShard(Function<AddressBook, T> query) {     // runs query on every shard under its read lock, in parallel
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int shard = i;
+            tasks.add(pool.submit(() -> {
+                lockBlocking(locks[shard].readLock());
+                try {
+                    return query.apply(shards[shard]);
+                } finally {
+                    locks[shard].readLock().unlock();
+                }
+            }));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<T> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    private static void lockBlocking(Lock lock) {
+        // waits for a shard lock as a ManagedBlocker, so while a writer holds the shard the pool can add a spare worker
+        // instead of leaving one of its threads, possibly one of the shared common pool's, stuck behind the lock
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() {
+                    lock.lock();
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {     // acquires the lock when it is free, and then block() is not called
+                    return lock.tryLock();
+                }
+            });
+        } catch (InterruptedException e) {  // only block() could throw it, and lock() does not
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record SortedRun(List<Contact> contacts, List<NameKey> keys) {   // one shard's contacts in name order, with the keys they sort by
+
+        static SortedRun of(AddressBook shard, List<Contact> contacts) {    // called under the shard's read lock, while the keys are current
+            List<NameKey> keys = new ArrayList<>(contacts.size());
+            for (Contact contact : contacts) {
+                keys.add(shard.getNameKey(contact.getId()));
+            }
+            return new SortedRun(contacts, keys);
+        }
+    }
+
+    private record ShardAnswer<T>(T answer, SortedRun run) {}
+
+    private static SortedRun merge(List<SortedRun> runs, int limit) {
+        // k-way merge on the shards' precomputed name keys: a heap holds the next key of each run, so taking m contacts costs O(m log k)
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> runs.get(a[0]).keys().get(a[1]).compareTo(runs.get(b[0]).keys().get(b[1])));
+        int total = 0;
+        for (int run = 0; run < runs.size(); run++) {
+            if (!runs.get(run).contacts().isEmpty()) {
+                heads.add(new int[] {run, 0});
+                total += runs.get(run).contacts().size();
+            }
+        }
+        List<Contact> contacts = new ArrayList<>(Math.min(limit, total));
+        List<NameKey> keys = new ArrayList<>(Math.min(limit, total));
+        while (contacts.size() < limit && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            SortedRun run = runs.get(head[0]);
+            contacts.add(run.contacts().get(head[1]));
+            keys.add(run.keys().get(head[1]));
+            if (++head[1] < run.contacts().size()) {
+                heads.add(head);
+            }
+        }
+        return new SortedRun(contacts, keys);
+    }
+
+    private int shardOf(int id) {   // ids are handed out in sequence, so mix the bits before taking the remainder
+        int hash = id * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    private void claimKeys(int id, String email, String phoneNumber) {
+        Integer emailOwner = idsByEmail.putIfAbsent(email, id);
+        if (emailOwner != null && emailOwner != id) {
+            throw new ValidationException("Email already exists");
+        }
+        Integer phoneOwner = idsByPhoneNumber.putIfAbsent(phoneNumber, id);
+        if (phoneOwner != null && phoneOwner != id) {
+            if (emailOwner == null) {
+                idsByEmail.remove(email, id);     // give back the email we just claimed
+            }
+            throw new ValidationException("Phone number already exists");
+        }
+    }
+
+    private void releaseKeys(int id, String email, String phoneNumber) {
+        idsByEmail.remove(email, id);
+        idsByPhoneNumber.remove(phoneNumber, id);
+    }
+}
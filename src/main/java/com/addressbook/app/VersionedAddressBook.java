@@ -0,0 +1,162 @@
+package com.addressbook.app;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.index.ContactKeys;
+import com.addressbook.app.index.NameKey;
+import com.addressbook.app.index.PersistentSortedMap;
+import com.addressbook.app.validation.ContactValidator;
+
+public class VersionedAddressBook {
+    // readers take the current AddressBookSnapshot with one volatile read and never lock; writers take turns under one
+    // lock, build the next version by path copying, and publish it with one volatile write. A reader holding an older
+    // snapshot keeps seeing exactly that version, and unchanged parts of the book are shared rather than copied.
+    // Every Contact it hands out is a shared read-only copy whose setters throw UnsupportedOperationException;
+    // change contacts through editContact
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile AddressBookSnapshot current = AddressBookSnapshot.EMPTY;
+
+    public AddressBookSnapshot snapshot() {     // its contacts are read-only, like everything else in it
+        return current;
+    }
+
+    public void addContact(Contact contact) {   // stores a read-only copy, later changes to contact itself are not seen by the book
+        if (contact == null) {
+            System.err.println("Failed to add contact: contact is null");
+            return;
+        }
+        writeLock.lock();
+        try {
+            AddressBookSnapshot snapshot = current;
+            if (snapshot.findContact(contact.getId()) != null) {
+                System.err.println("Failed to add contact: contact already exists");
+                return;
+            }
+            String email = ContactKeys.normalizeEmail(contact.getEmail());
+            String phoneNumber = ContactKeys.normalizePhoneNumber(contact.getPhoneNumber());
+            checkKeys(snapshot, contact.getId(), email, phoneNumber);
+            Contact frozen = new FrozenContact(contact.getId(), contact.getName(), contact.getEmail(), contact.getPhoneNumber());
+            current = new AddressBookSnapshot(snapshot.getVersion() + 1,
+                    snapshot.contactsById().put(frozen.getId(), frozen),
+                    snapshot.contactsByName().put(AddressBookSnapshot.nameKey(frozen), frozen),
+                    snapshot.idsByEmail().put(email, frozen.getId()),
+                    snapshot.idsByPhoneNumber().put(phoneNumber, frozen.getId()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void removeContact(int id) {
+        writeLock.lock();
+        try {
+            AddressBookSnapshot snapshot = current;
+            Contact contact = snapshot.findContact(id);
+            if (contact == null) {
+                System.err.println("Failed to remove contact: contact not found");
+                return;
+            }
+            current = new AddressBookSnapshot(snapshot.getVersion() + 1,
+                    snapshot.contactsById().remove(id),
+                    snapshot.contactsByName().remove(AddressBookSnapshot.nameKey(contact)),
+                    snapshot.idsByEmail().remove(ContactKeys.normalizeEmail(contact.getEmail())),
+                    snapshot.idsByPhoneNumber().remove(ContactKeys.normalizePhoneNumber(contact.getPhoneNumber())));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void editContact(int id, String name, String email, String phoneNumber) {
+        ContactValidator.validateName(name);       // validate before taking the lock, so bad input never holds up other writers
+        ContactValidator.validateEmail(email);
+        ContactValidator.validatePhoneNumber(phoneNumber);
+        writeLock.lock();
+        try {
+            AddressBookSnapshot snapshot = current;
+            Contact old = snapshot.findContact(id);
+            if (old == null) {
+                System.err.println("Failed to edit contact: contact not found");
+                return;
+            }
+            String newEmail = ContactKeys.normalizeEmail(email);
+            String newPhoneNumber = ContactKeys.normalizePhoneNumber(phoneNumber);
+            checkKeys(snapshot, id, newEmail, newPhoneNumber);
+            Contact edited = new FrozenContact(id, name, email, phoneNumber);
+            current = new AddressBookSnapshot(snapshot.getVersion() + 1,
+                    snapshot.contactsById().put(id, edited),
+                    snapshot.contactsByName().remove(AddressBookSnapshot.nameKey(old)).put(AddressBookSnapshot.nameKey(edited), edited),
+                    snapshot.idsByEmail().remove(ContactKeys.normalizeEmail(old.getEmail())).put(newEmail, id),
+                    snapshot.idsByPhoneNumber().remove(ContactKeys.normalizePhoneNumber(old.getPhoneNumber())).put(newPhoneNumber, id));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void deleteAll() {
+        if (current.size() == 0) {
+            System.err.println("No contacts found");
+            return;
+        }
+        clear();
+        System.out.println("All contacts have been deleted.");
+    }
+
+    public void clear() {   // snapshots taken before still hold every contact
+        writeLock.lock();
+        try {
+            AddressBookSnapshot snapshot = current;
+            current = new AddressBookSnapshot(snapshot.getVersion() + 1, PersistentSortedMap.empty(), PersistentSortedMap.empty(),
+                    PersistentSortedMap.empty(), PersistentSortedMap.empty());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Contact findContact(int id) {    // read-only, edit it through editContact
+        return current.findContact(id);
+    }
+
+    public int size() {
+        return current.size();
+    }
+
+    public List<Contact> getContacts() {    // read-only list of read-only contacts, in name order, as of the moment of the call
+        return current.getContacts();
+    }
+
+    public String getAllContacts() {
+        return current.getAllContacts();
+    }
+
+    public void writeAllContacts(Appendable out) throws IOException {   // writes one consistent version however long the output takes
+        current.writeAllContacts(out);
+    }
+
+    public ContactPage getContactsPage(NameKey after, int pageSize) {
+        return current.getContactsPage(after, pageSize);
+    }
+
+    public List<Contact> filterContactsByName(String name) {
+        return current.filterContactsByName(name);
+    }
+
+    public void searchContacts(String name) {
+        for (Contact contact : filterContactsByName(name)) {
+            System.out.println("Name: " + contact.getName() + ", Email: " + contact.getEmail() + ", Phone: " + contact.getPhoneNumber());
+        }
+    }
+
+    private static void checkKeys(AddressBookSnapshot snapshot, int id, String email, String phoneNumber) {
+        Integer emailOwner = snapshot.ownerOfEmail(email);
+        if (emailOwner != null && emailOwner != id) {
+            throw new ValidationException("Email already exists");
+        }
+        Integer phoneOwner = snapshot.ownerOfPhoneNumber(phoneNumber);
+        if (phoneOwner != null && phoneOwner != id) {
+            throw new ValidationException("Phone number already exists");
+        }
+    }
+}
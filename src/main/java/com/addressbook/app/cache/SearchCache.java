@@ -0,0 +1,105 @@
+package com.addressbook.app.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.ToIntFunction;
+
+public class SearchCache<K, V> {
+    // a least-recently-used cache of query results, each tagged with the version of the data it was computed from. The
+    // owner bumps its version on every change, which makes every older entry stale at once without touching any of them;
+    // stale entries are dropped when next looked up, or pushed out by newer ones. Both the number of entries and their
+    // total weight, e.g. the number of contacts across all cached lists, are bounded
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToIntFunction<V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);   // access order, eldest is least recently used
+    private long weight;
+    private long hits;
+    private long misses;
+    private long staleMisses;   // misses where an entry existed but was computed before the last change
+
+    private record Entry<V>(long version, V value, int weight) {}
+
+    public SearchCache(int maxEntries) {    // 0 disables caching
+        this(maxEntries, Long.MAX_VALUE, value -> 1);
+    }
+
+    public SearchCache(int maxEntries, long maxWeight, ToIntFunction<V> weigher) {
+        if (maxEntries < 0 || maxWeight < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public V get(K key, long version) {     // null when there is no result computed at this version
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.version() == version) {
+            hits++;
+            return entry.value();
+        }
+        if (entry != null) {
+            entries.remove(key);
+            weight -= entry.weight();
+            staleMisses++;
+        }
+        misses++;
+        return null;
+    }
+
+    public void put(K key, long version, V value) {     // a value heavier than the whole cache may hold is not kept
+        int valueWeight = weigher.applyAsInt(value);
+        if (maxEntries == 0 || valueWeight > maxWeight) {
+            return;
+        }
+        Entry<V> replaced = entries.put(key, new Entry<>(version, value, valueWeight));
+        weight += valueWeight - (replaced == null ? 0 : replaced.weight());
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            weight -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getStaleMisses() {
+        return staleMisses;
+    }
+
+    public double getHitRate() {    // between 0 and 1, 0 before the first lookup
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        staleMisses = 0;
+    }
+}
@@ -2,13 +2,36 @@ package com.addressbook.app;
 
 import com.addressbook.app.exceptions.ValidationException;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Scanner;
 
+import javax.management.JMException;
+
+import com.addressbook.app.index.NameKey;
+
 public class consoleApplication {
 
+    private static final int PAGE_SIZE = 20;
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {     // --batch [script], reading the script from stdin when no file (or "-") is given
+            System.exit(runBatch(args.length > 1 ? args[1] : "-"));
+        }
         Scanner scanner = new Scanner(System.in);
         AddressBook addressBook = new AddressBook();
+        try {
+            addressBook.getMetrics().registerMBean("console");
+        } catch (JMException e) {
+            System.err.println("Statistics will not be available over JMX: " + e.getMessage());
+        }
         boolean running = true;
 
 
@@ -63,12 +86,12 @@ public class consoleApplication {
                     System.out.println("Enter search term: ");
                     String searchTerm = scanner.nextLine();
                     System.out.println("Search results: ");
-                    addressBook.searchContacts(searchTerm);
+                    listSearchResults(scanner, addressBook, searchTerm);
                     System.out.println("----------------------------------------");
                     break;
                 case "5":
                     System.out.println("All contacts: ");
-                    System.out.println(addressBook.getAllContacts());
+                    listContacts(scanner, addressBook);
                     System.out.println("----------------------------------------");
                     break;
                 case "6":
@@ -76,6 +99,16 @@ public class consoleApplication {
                     System.out.println("All contacts successfully deleted.");
                     System.out.println("----------------------------------------");
                     break;
+                case "8":
+                case "stats":
+                    System.out.println("Statistics: ");
+                    try {
+                        addressBook.getMetrics().writeReport(System.out);
+                    } catch (IOException e) {
+                        System.err.println("Failed to show statistics: " + e.getMessage());
+                    }
+                    System.out.println("----------------------------------------");
+                    break;
                 case "7":
                     System.out.println("Thank you for using the Address Book Application. Goodbye!");
                     System.out.println("----------------------------------------");
@@ -88,6 +121,62 @@ public class consoleApplication {
         }
         scanner.close();
     }
+    private static int runBatch(String script) {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        try (BufferedReader in = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8)) {
+            BatchSummary summary = new BatchRunner(new AddressBook(), out).run(in);
+            return summary.failures() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Failed to run batch script: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    private static void listContacts(Scanner scanner, AddressBook addressBook) {  // prints one page at a time so a large book is never held as a single string
+        NameKey cursor = null;
+        do {
+            ContactPage page = addressBook.getContactsPage(cursor, PAGE_SIZE);
+            if (cursor == null && page.contacts().isEmpty()) {
+                System.err.println("No contacts found");
+                return;
+            }
+            try {
+                addressBook.writeContacts(page.contacts(), System.out);
+            } catch (IOException e) {
+                System.err.println("Failed to list contacts: " + e.getMessage());
+                return;
+            }
+            cursor = page.nextCursor();
+            if (page.hasMore()) {
+                System.out.println("Press enter to see more contacts, or type q to stop: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    return;
+                }
+            }
+        } while (cursor != null);
+    }
+
+    private static void listSearchResults(Scanner scanner, AddressBook addressBook, String searchTerm) {  // one page of matches at a time, so a broad term never sorts the whole book
+        int offset = 0;
+        while (true) {
+            SearchResults results = addressBook.findContactsByName(searchTerm, offset, PAGE_SIZE);
+            for (Contact contact : results.contacts()) {
+                System.out.println("Name: " + contact.getName() + ", Email: " + contact.getEmail() + ", Phone: " + contact.getPhoneNumber());
+            }
+            if (!results.hasMore()) {
+                return;
+            }
+            offset += results.contacts().size();
+            System.out.println("Showing " + offset + " of " + (results.exactTotal() ? "" : "about ") + results.totalEstimate() + " matches.");
+            System.out.println("Press enter to see more results, or type q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+        }
+    }
+
     public static void menu() {
         System.out.println("----------------------------------------");
         System.out.println("Welcome to the Address Book Application");
@@ -101,6 +190,7 @@ public class consoleApplication {
         System.out.println("5. List all contacts");
         System.out.println("6. Delete all contacts");
         System.out.println("7. Exit");
+        System.out.println("8. Show statistics (or type stats)");
         System.out.println("----------------------------------------");
     };
 }
@@ -0,0 +1,7 @@
+package com.addressbook.app.events;
+
+public enum BackpressurePolicy {   // what publishing does when a subscriber's buffer is full
+    BLOCK,          // the change waits until the subscriber makes room, so nothing is lost but a slow subscriber slows writers
+    DROP_OLDEST,    // the oldest undelivered event is overwritten, the subscriber sees a gap in sequence numbers
+    DROP_NEWEST     // the new event is discarded, the subscriber sees a gap in sequence numbers
+}
@@ -0,0 +1,12 @@
+package com.addressbook.app.events;
+
+public record ContactEvent(long sequence, ContactEventType type, ContactState before, ContactState after) {
+    // sequence numbers start at 1 and go up by one per change, so a subscriber that sees a gap knows events were dropped
+
+    public int contactId() {    // -1 for CLEARED, which is not about one contact
+        if (after != null) {
+            return after.id();
+        }
+        return before != null ? before.id() : -1;
+    }
+}
@@ -0,0 +1,42 @@
+package com.addressbook.app.events;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ContactEventBus {  // numbers each change and fans it out to every subscription's buffer
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long sequence;
+
+    public Subscription subscribe(ContactEventListener listener) {
+        return subscribe(listener, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, BackpressurePolicy.BLOCK);
+    }
+
+    public Subscription subscribe(ContactEventListener listener, int capacity, int maxBatchSize, BackpressurePolicy policy) {
+        Subscription subscription = new Subscription(this, listener, capacity, maxBatchSize, policy);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public boolean hasSubscribers() {   // lets publishers skip copying contact fields when nobody is listening
+        return !subscriptions.isEmpty();
+    }
+
+    public synchronized long getSequence() {    // the sequence number of the last event published
+        return sequence;
+    }
+
+    public synchronized void publish(ContactEventType type, ContactState before, ContactState after) {
+        // synchronized so events reach every buffer in sequence order, even from several publishing threads
+        ContactEvent event = new ContactEvent(++sequence, type, before, after);
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    void remove(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+}
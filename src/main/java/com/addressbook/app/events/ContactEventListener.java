@@ -0,0 +1,9 @@
+package com.addressbook.app.events;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface ContactEventListener {    // called on the subscription's own thread, one batch at a time, in sequence order
+
+    void onEvents(List<ContactEvent> events);
+}
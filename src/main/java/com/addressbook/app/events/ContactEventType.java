@@ -0,0 +1,8 @@
+package com.addressbook.app.events;
+
+public enum ContactEventType {
+    ADDED,      // after holds the new contact
+    EDITED,     // before and after hold the contact on either side of the edit
+    REMOVED,    // before holds the removed contact
+    CLEARED     // every contact was deleted at once, neither side is set
+}
@@ -0,0 +1,10 @@
+package com.addressbook.app.events;
+
+import com.addressbook.app.Contact;
+
+public record ContactState(int id, String name, String email, String phoneNumber) {    // a contact's fields copied at the moment of a change
+
+    public static ContactState of(Contact contact) {
+        return new ContactState(contact.getId(), contact.getName(), contact.getEmail(), contact.getPhoneNumber());
+    }
+}
@@ -0,0 +1,147 @@
+package com.addressbook.app.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class Subscription implements AutoCloseable {
+    // one subscriber's bounded ring buffer and the virtual thread that drains it. Publishing only copies a reference into
+    // the ring, so the book's writers never run listener code; the delivery thread hands over everything that has built
+    // up since its last batch, up to maxBatchSize, so a subscriber that falls behind catches up in fewer, larger calls
+
+    private final ContactEventBus bus;
+    private final ContactEventListener listener;
+    private final BackpressurePolicy policy;
+    private final int maxBatchSize;
+    private final ContactEvent[] ring;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong deliveredEvents = new AtomicLong();
+    private final Thread deliveryThread;
+    private long head;      // sequence of ring slots: next to deliver
+    private long tail;      // next to fill
+    private boolean closed;
+
+    Subscription(ContactEventBus bus, ContactEventListener listener, int capacity, int maxBatchSize, BackpressurePolicy policy) {
+        if (capacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        this.bus = bus;
+        this.listener = listener;
+        this.policy = policy;
+        this.maxBatchSize = maxBatchSize;
+        this.ring = new ContactEvent[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];    // a power of two, so a slot is (position & mask)
+        this.mask = ring.length - 1;
+        this.deliveryThread = Thread.ofVirtual().name("contact-events").start(this::deliver);
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public long getDeliveredEvents() {
+        return deliveredEvents.get();
+    }
+
+    public int getPendingEvents() {
+        lock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {   // stops accepting events, then waits for the ones already buffered to be delivered
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        bus.remove(this);
+        if (Thread.currentThread() != deliveryThread) {     // a listener may close its own subscription
+            try {
+                deliveryThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void offer(ContactEvent event) {
+        lock.lock();
+        try {
+            while (!closed && tail - head == ring.length) {
+                switch (policy) {
+                    case BLOCK -> {
+                        try {
+                            notFull.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            droppedEvents.incrementAndGet();
+                            return;
+                        }
+                    }
+                    case DROP_OLDEST -> {
+                        ring[(int) (head++ & mask)] = null;
+                        droppedEvents.incrementAndGet();
+                    }
+                    case DROP_NEWEST -> {
+                        droppedEvents.incrementAndGet();
+                        return;
+                    }
+                }
+            }
+            if (closed) {
+                return;
+            }
+            ring[(int) (tail++ & mask)] = event;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deliver() {
+        while (true) {
+            List<ContactEvent> batch;
+            lock.lock();
+            try {
+                while (head == tail && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (head == tail) {
+                    return;     // closed and drained
+                }
+                int count = (int) Math.min(tail - head, maxBatchSize);
+                batch = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int slot = (int) (head++ & mask);
+                    batch.add(ring[slot]);
+                    ring[slot] = null;
+                }
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                listener.onEvents(batch);
+            } catch (RuntimeException e) {      // one bad batch should not stop the stream
+                System.err.println("Contact event listener failed: " + e.getMessage());
+            }
+            deliveredEvents.addAndGet(batch.size());
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.addressbook.app.exceptions;
 
     public class ValidationException extends RuntimeException {
         public ValidationException(String message) {
-            super(message);
+            super(message, null, false, false);    // no stack trace: these are expected, often in bulk, and the message says it all
         }
     }
 
@@ -0,0 +1,68 @@
+package com.addressbook.app.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.addressbook.app.ConcurrentAddressBook;
+import com.sun.net.httpserver.HttpServer;
+
+public class AddressBookServer {
+    // serves an address book as JSON over HTTP with the JDK's built-in server. Every exchange runs on its own virtual
+    // thread, so a slow client parks a cheap thread instead of holding one of a small pool; the book is the lock-free
+    // ConcurrentAddressBook, so requests never queue behind each other
+
+    public static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+
+    private final ConcurrentAddressBook addressBook;
+    private final InetSocketAddress address;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public AddressBookServer(ConcurrentAddressBook addressBook, int port) {
+        this(addressBook, new InetSocketAddress(port));
+    }
+
+    public AddressBookServer(ConcurrentAddressBook addressBook, InetSocketAddress address) {
+        this.addressBook = addressBook;
+        this.address = address;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Server is already running");
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(address, BACKLOG);
+        server.createContext(ContactsHandler.PATH, new ContactsHandler(addressBook));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public synchronized void stop() {   // waits up to a second for exchanges in progress to finish
+        if (server == null) {
+            return;
+        }
+        server.stop(1);
+        executor.close();
+        server = null;
+        executor = null;
+    }
+
+    public synchronized int getPort() {     // the bound port, useful when started on port 0
+        if (server == null) {
+            throw new IllegalStateException("Server is not running");
+        }
+        return server.getAddress().getPort();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        AddressBookServer server = new AddressBookServer(new ConcurrentAddressBook(), port);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("Address book server listening on port " + server.getPort());
+    }
+}
@@ -0,0 +1,276 @@
+package com.addressbook.app.http;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.addressbook.app.ConcurrentAddressBook;
+import com.addressbook.app.Contact;
+import com.addressbook.app.ContactPage;
+import com.addressbook.app.MutationOutcome;
+import com.addressbook.app.SearchResults;
+import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.index.NameKey;
+import com.addressbook.app.validation.ContactValidator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+class ContactsHandler implements HttpHandler {
+    //   POST   /contacts                 add, body {"name", "email", "phoneNumber"}
+    //   GET    /contacts?after=&limit=   one page in name order, pass the previous page's nextCursor as after
+    //   DELETE /contacts                 delete all
+    //   GET    /contacts/search?q=&limit=  first matches in name order, total is an estimate unless exactTotal is true
+    //   GET    /contacts/{id}
+    //   PUT    /contacts/{id}            edit, body as for add
+    //   DELETE /contacts/{id}            remove
+
+    static final String PATH = "/contacts";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final ConcurrentAddressBook addressBook;
+
+    ContactsHandler(ConcurrentAddressBook addressBook) {
+        this.addressBook = addressBook;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (ValidationException | IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals(PATH) || path.equals(PATH + "/")) {
+            switch (method) {
+                case "GET" -> listContacts(exchange);
+                case "POST" -> addContact(exchange);
+                case "DELETE" -> {
+                    addressBook.clear();
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> sendError(exchange, 405, "Method not allowed");
+            }
+        } else if (path.equals(PATH + "/search")) {
+            if (method.equals("GET")) {
+                searchContacts(exchange);
+            } else {
+                sendError(exchange, 405, "Method not allowed");
+            }
+        } else {
+            int id = parseId(path.substring(PATH.length() + 1));
+            switch (method) {
+                case "GET" -> getContact(exchange, id);
+                case "PUT" -> editContact(exchange, id);
+                case "DELETE" -> removeContact(exchange, id);
+                default -> sendError(exchange, 405, "Method not allowed");
+            }
+        }
+    }
+
+    private void addContact(HttpExchange exchange) throws IOException {
+        Map<String, String> fields = readBody(exchange);
+        Contact contact = new Contact(fields.get("name"), fields.get("email"), fields.get("phoneNumber"));
+        MutationOutcome outcome = addressBook.tryAddContact(contact);
+        if (!outcome.isSuccess()) {
+            sendFailure(exchange, outcome, outcome.getMessage());
+            return;
+        }
+        exchange.getResponseHeaders().set("Location", PATH + "/" + contact.getId());
+        sendContact(exchange, 201, contact);
+    }
+
+    private void getContact(HttpExchange exchange, int id) throws IOException {
+        Contact contact = addressBook.findContact(id);
+        if (contact == null) {
+            sendError(exchange, 404, "Contact not found");
+        } else {
+            sendContact(exchange, 200, contact);
+        }
+    }
+
+    private void editContact(HttpExchange exchange, int id) throws IOException {
+        Map<String, String> fields = readBody(exchange);
+        String name = fields.get("name");
+        String email = fields.get("email");
+        String phoneNumber = fields.get("phoneNumber");
+        MutationOutcome outcome = addressBook.tryEditContact(id, name, email, phoneNumber);
+        if (!outcome.isSuccess()) {
+            String message = outcome == MutationOutcome.INVALID_FIELD ? ContactValidator.findProblem(name, email, phoneNumber) : outcome.getMessage();
+            sendFailure(exchange, outcome, message);
+            return;
+        }
+        Contact contact = addressBook.findContact(id);
+        if (contact == null) {     // removed again between the edit and this read
+            sendError(exchange, 404, "Contact not found");
+        } else {
+            sendContact(exchange, 200, contact);
+        }
+    }
+
+    private void removeContact(HttpExchange exchange, int id) throws IOException {
+        MutationOutcome outcome = addressBook.tryRemoveContact(id);
+        if (outcome.isSuccess()) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            sendFailure(exchange, outcome, outcome.getMessage());
+        }
+    }
+
+    private static void sendFailure(HttpExchange exchange, MutationOutcome outcome, String message) throws IOException {
+        int status = switch (outcome) {
+            case NOT_FOUND -> 404;
+            case ALREADY_EXISTS, DUPLICATE_EMAIL, DUPLICATE_PHONE -> 409;
+            default -> 400;
+        };
+        sendError(exchange, status, message);
+    }
+
+    private void listContacts(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int limit = parseLimit(query.get("limit"), DEFAULT_PAGE_SIZE);
+        NameKey after = query.containsKey("after") ? decodeCursor(query.get("after")) : null;
+        ContactPage page = addressBook.getContactsPage(after, limit);
+        try (Writer out = startStreaming(exchange)) {
+            out.append("{\"contacts\":");
+            writeContacts(out, page.contacts(), page.contacts().size());
+            out.append(",\"nextCursor\":");
+            if (page.hasMore()) {
+                Json.writeString(out, encodeCursor(page.nextCursor()));
+            } else {
+                out.append("null");
+            }
+            out.append('}');
+        }
+    }
+
+    private void searchContacts(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String term = query.get("q");
+        if (term == null || term.isEmpty()) {
+            throw new IllegalArgumentException("Missing search term q");
+        }
+        int limit = parseLimit(query.get("limit"), 100);
+        SearchResults matches = addressBook.findContactsByName(term, 0, limit);     // stops one match past the page, so total may be an estimate
+        try (Writer out = startStreaming(exchange)) {
+            out.append("{\"total\":").append(String.valueOf(matches.totalEstimate())).append(",\"contacts\":");
+            writeContacts(out, matches.contacts(), limit);
+            out.append(",\"exactTotal\":").append(String.valueOf(matches.exactTotal())).append('}');
+        }
+    }
+
+    private static void writeContacts(Writer out, List<Contact> contacts, int limit) throws IOException {
+        out.append('[');
+        for (int i = 0; i < contacts.size() && i < limit; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Json.writeContact(out, contacts.get(i));
+        }
+        out.append(']');
+    }
+
+    private static Writer startStreaming(HttpExchange exchange) throws IOException {   // chunked, so the body is written as it is produced
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192);
+    }
+
+    private static void sendContact(HttpExchange exchange, int status, Contact contact) throws IOException {
+        StringBuilder body = new StringBuilder(128);
+        Json.writeContact(body, contact);
+        send(exchange, status, body.toString());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder body = new StringBuilder("{\"error\":");
+        Json.writeString(body, message == null ? "Request failed" : message);
+        send(exchange, status, body.append('}').toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Request body is too large");
+            }
+            Map<String, String> fields = Json.parseObject(new String(body, StandardCharsets.UTF_8));
+            for (String field : new String[] {"name", "email", "phoneNumber"}) {
+                if (!fields.containsKey(field)) {
+                    throw new IllegalArgumentException("Missing field " + field);
+                }
+            }
+            return fields;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            String key = equals < 0 ? parameter : parameter.substring(0, equals);
+            String value = equals < 0 ? "" : parameter.substring(equals + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static int parseLimit(String value, int defaultLimit) {
+        if (value == null) {
+            return defaultLimit;
+        }
+        int limit = Integer.parseInt(value);    // NumberFormatException is an IllegalArgumentException, so it becomes a 400
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private static int parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a contact id: " + value);
+        }
+    }
+
+    static String encodeCursor(NameKey key) {   // opaque to clients: the id and name of the last contact on the page
+        String cursor = key.id() + ":" + key.name();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static NameKey decodeCursor(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int colon = decoded.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new NameKey(decoded.substring(colon + 1), parseId(decoded.substring(0, colon)));
+    }
+}
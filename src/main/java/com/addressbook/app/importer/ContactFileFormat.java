@@ -0,0 +1,15 @@
+package com.addressbook.app.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import com.addressbook.app.validation.ContactRecord;
+
+public interface ContactFileFormat {
+    // reading is split in two so only the cheap part is sequential: readRawRecord runs on the importing thread,
+    // parse runs on the worker threads and must not touch any shared state
+
+    String readRawRecord(BufferedReader in) throws IOException;     // the text of the next record, or null at the end of the file
+
+    ContactRecord parse(String rawRecord) throws ImportFormatException;
+}
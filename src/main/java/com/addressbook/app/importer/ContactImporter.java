@@ -0,0 +1,166 @@
+package com.addressbook.app.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.addressbook.app.AddressBook;
+import com.addressbook.app.Contact;
+import com.addressbook.app.MutationOutcome;
+import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.validation.ContactRecord;
+
+public class ContactImporter {
+    // a three stage pipeline: the calling thread reads raw records into batches, worker threads parse and validate
+    // whole batches, and the calling thread inserts finished batches in file order. At most two batches per worker are
+    // in flight, so memory stays bounded however large the file is
+
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    public static final int DEFAULT_MAX_STORED_REJECTIONS = 10_000;    // later rejections are only counted, so a bad file cannot fill the heap
+
+    private final AddressBook addressBook;
+    private final int threads;
+    private final int batchSize;
+    private final int maxStoredRejections;
+
+    private record ParsedBatch(long firstRow, Contact[] contacts, List<RejectedRow> rejectedRows) {}     // contacts[i] is null when row i was rejected
+
+    public ContactImporter(AddressBook addressBook) {
+        this(addressBook, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    public ContactImporter(AddressBook addressBook, int threads, int batchSize) {
+        this(addressBook, threads, batchSize, DEFAULT_MAX_STORED_REJECTIONS);
+    }
+
+    public ContactImporter(AddressBook addressBook, int threads, int batchSize, int maxStoredRejections) {
+        if (threads <= 0 || batchSize <= 0 || maxStoredRejections < 0) {
+            throw new IllegalArgumentException("Threads and batch size must be positive, and the stored rejections not negative");
+        }
+        this.addressBook = addressBook;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.maxStoredRejections = maxStoredRejections;
+    }
+
+    public ImportReport importCsv(Path file, ImportProgress progress) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, new CsvContactFormat(), progress);
+        }
+    }
+
+    public ImportReport importVCard(Path file, ImportProgress progress) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, new VCardContactFormat(), progress);
+        }
+    }
+
+    public ImportReport importFrom(Reader reader, ContactFileFormat format, ImportProgress progress) throws IOException {   // progress may be null
+        BufferedReader in = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 1 << 16);
+        long start = System.nanoTime();
+        ImportState state = new ImportState();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<ParsedBatch>> inFlight = new ArrayDeque<>();
+        try {
+            long nextRow = 1;
+            List<String> batch = readBatch(in, format);
+            while (!batch.isEmpty()) {
+                List<String> rows = batch;
+                long firstRow = nextRow;
+                inFlight.add(workers.submit(() -> parse(rows, firstRow, format)));
+                nextRow += rows.size();
+                if (inFlight.size() >= threads * 2) {
+                    insert(inFlight.poll(), state, start, progress);
+                }
+                batch = readBatch(in, format);
+            }
+            while (!inFlight.isEmpty()) {
+                insert(inFlight.poll(), state, start, progress);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return new ImportReport(state.accepted, state.rejected, state.rejectedRows, System.nanoTime() - start);
+    }
+
+    static double recordsPerSecond(long records, long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0 : records * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    private final class ImportState {   // only touched by the importing thread
+        long accepted;
+        long rejected;
+        final List<RejectedRow> rejectedRows = new ArrayList<>();     // the first maxStoredRejections of them
+
+        void reject(RejectedRow row) {
+            rejected++;
+            if (rejectedRows.size() < maxStoredRejections) {
+                rejectedRows.add(row);
+            }
+        }
+    }
+
+    private List<String> readBatch(BufferedReader in, ContactFileFormat format) throws IOException {
+        List<String> batch = new ArrayList<>(batchSize);
+        String record;
+        while (batch.size() < batchSize && (record = format.readRawRecord(in)) != null) {
+            batch.add(record);
+        }
+        return batch;
+    }
+
+    private static ParsedBatch parse(List<String> rows, long firstRow, ContactFileFormat format) {
+        Contact[] contacts = new Contact[rows.size()];
+        List<RejectedRow> rejectedRows = new ArrayList<>();
+        for (int i = 0; i < contacts.length; i++) {
+            try {
+                ContactRecord record = format.parse(rows.get(i));
+                contacts[i] = new Contact(record.name(), record.email(), record.phoneNumber());     // validates all three fields
+            } catch (ImportFormatException | ValidationException e) {
+                rejectedRows.add(new RejectedRow(firstRow + i, e.getMessage()));
+            }
+        }
+        return new ParsedBatch(firstRow, contacts, rejectedRows);
+    }
+
+    private void insert(Future<ParsedBatch> pending, ImportState state, long start, ImportProgress progress) throws IOException {
+        ParsedBatch batch;
+        try {
+            batch = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to parse import batch", e.getCause());
+        }
+        int parseRejections = 0;
+        Contact[] contacts = batch.contacts();
+        for (int i = 0; i < contacts.length; i++) {     // merge insert rejections with parse rejections so rows stay in order
+            long row = batch.firstRow() + i;
+            if (contacts[i] == null) {
+                state.reject(batch.rejectedRows().get(parseRejections++));
+                continue;
+            }
+            MutationOutcome outcome = addressBook.tryAddContact(contacts[i]);   // the book's email and phone indexes already hold earlier rows of this import
+            if (outcome.isSuccess()) {
+                state.accepted++;
+            } else {
+                state.reject(new RejectedRow(row, outcome.getMessage()));
+            }
+        }
+        if (progress != null) {
+            long processed = state.accepted + state.rejected;
+            progress.update(processed, state.accepted, state.rejected, recordsPerSecond(processed, System.nanoTime() - start));
+        }
+    }
+}
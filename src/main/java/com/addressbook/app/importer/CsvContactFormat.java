@@ -0,0 +1,111 @@
+package com.addressbook.app.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.addressbook.app.validation.ContactRecord;
+
+public class CsvContactFormat implements ContactFileFormat {   // RFC 4180 CSV with a header row naming the name, email and phone columns
+
+    private int nameColumn = -1;
+    private int emailColumn = -1;
+    private int phoneNumberColumn = -1;
+
+    @Override
+    public String readRawRecord(BufferedReader in) throws IOException {
+        String record = readQuotedLines(in);
+        while (record != null && record.isEmpty()) {     // skip blank lines
+            record = readQuotedLines(in);
+        }
+        if (record != null && nameColumn < 0) {
+            readHeader(record);
+            return readRawRecord(in);
+        }
+        return record;
+    }
+
+    @Override
+    public ContactRecord parse(String rawRecord) throws ImportFormatException {
+        List<String> fields = splitFields(rawRecord);
+        int needed = Math.max(nameColumn, Math.max(emailColumn, phoneNumberColumn));
+        if (fields.size() <= needed) {
+            throw new ImportFormatException("Expected at least " + (needed + 1) + " columns but found " + fields.size());
+        }
+        return new ContactRecord(fields.get(nameColumn).trim(), fields.get(emailColumn).trim(), fields.get(phoneNumberColumn).trim());
+    }
+
+    private void readHeader(String header) throws IOException {
+        List<String> columns = splitFields(header);
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).trim().toLowerCase(Locale.ROOT);
+            switch (column) {
+                case "name", "full name", "fn" -> nameColumn = i;
+                case "email", "e-mail", "email address" -> emailColumn = i;
+                case "phone", "phone number", "phonenumber", "telephone", "tel" -> phoneNumberColumn = i;
+                default -> { }
+            }
+        }
+        if (nameColumn < 0 || emailColumn < 0 || phoneNumberColumn < 0) {
+            throw new IOException("CSV header must name the name, email and phone columns: " + header);
+        }
+    }
+
+    private static String readQuotedLines(BufferedReader in) throws IOException {   // a quoted field may span lines, so keep reading while a quote is open
+        String line = in.readLine();
+        if (line == null) {
+            return null;
+        }
+        int quotes = countQuotes(line);
+        if (quotes % 2 == 0) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        String next;
+        while (quotes % 2 != 0 && (next = in.readLine()) != null) {
+            record.append('\n').append(next);
+            quotes += countQuotes(next);
+        }
+        return record.toString();
+    }
+
+    private static int countQuotes(CharSequence text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    static List<String> splitFields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
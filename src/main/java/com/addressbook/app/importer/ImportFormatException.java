@@ -0,0 +1,10 @@
+package com.addressbook.app.importer;
+
+public class ImportFormatException extends Exception {     // a row that cannot be turned into contact fields, reported as a rejected row
+
+    private static final long serialVersionUID = 1L;
+
+    public ImportFormatException(String message) {
+        super(message, null, false, false);    // rows are rejected in bulk, a stack trace would only slow the import down
+    }
+}
@@ -0,0 +1,7 @@
+package com.addressbook.app.importer;
+
+@FunctionalInterface
+public interface ImportProgress {   // called on the importing thread after every batch is inserted
+
+    void update(long processed, long accepted, long rejected, double recordsPerSecond);
+}
@@ -0,0 +1,56 @@
+package com.addressbook.app.importer;
+
+import java.io.IOException;
+import java.util.List;
+
+public class ImportReport {
+
+    private final long accepted;
+    private final long rejected;
+    private final List<RejectedRow> rejectedRows;
+    private final long elapsedNanos;
+
+    ImportReport(long accepted, long rejected, List<RejectedRow> rejectedRows, long elapsedNanos) {
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.rejectedRows = List.copyOf(rejectedRows);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getProcessedCount() {
+        return accepted + rejected;
+    }
+
+    public long getAcceptedCount() {
+        return accepted;
+    }
+
+    public long getRejectedCount() {
+        return rejected;
+    }
+
+    public List<RejectedRow> getRejectedRows() {    // in row order, only the first ContactImporter's maxStoredRejections of them
+        return rejectedRows;
+    }
+
+    public long getOmittedRejectionCount() {   // rejections that were counted but not kept
+        return rejected - rejectedRows.size();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getRecordsPerSecond() {
+        return ContactImporter.recordsPerSecond(getProcessedCount(), elapsedNanos);
+    }
+
+    public void writeRejectedRows(Appendable out) throws IOException {
+        for (RejectedRow row : rejectedRows) {
+            out.append("Row ").append(String.valueOf(row.rowNumber())).append(": ").append(row.reason()).append('\n');
+        }
+        if (getOmittedRejectionCount() > 0) {
+            out.append("... and ").append(String.valueOf(getOmittedRejectionCount())).append(" more rejected rows\n");
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.addressbook.app.importer;
+
+public record RejectedRow(long rowNumber, String reason) {}     // rowNumber counts records from 1, not counting a CSV header
@@ -0,0 +1,101 @@
+package com.addressbook.app.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Locale;
+
+import com.addressbook.app.validation.ContactRecord;
+
+public class VCardContactFormat implements ContactFileFormat {  // vCard 2.1/3.0/4.0: uses FN (or N), the first EMAIL and the first TEL of each card
+
+    @Override
+    public String readRawRecord(BufferedReader in) throws IOException {
+        StringBuilder card = null;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (card == null) {
+                if (line.trim().equalsIgnoreCase("BEGIN:VCARD")) {
+                    card = new StringBuilder();
+                }
+                continue;
+            }
+            if (line.trim().equalsIgnoreCase("END:VCARD")) {
+                return card.toString();
+            }
+            if (!line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                card.append(line, 1, line.length());     // folded continuation of the previous line
+            } else {
+                if (card.length() > 0) {
+                    card.append('\n');
+                }
+                card.append(line);
+            }
+        }
+        return card == null ? null : card.toString();   // a card cut off by the end of the file is still parsed, and rejected if incomplete
+    }
+
+    @Override
+    public ContactRecord parse(String rawRecord) throws ImportFormatException {
+        String formattedName = null;
+        String structuredName = null;
+        String email = null;
+        String phoneNumber = null;
+        for (String line : rawRecord.split("\n")) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String property = line.substring(0, colon);
+            int parameters = property.indexOf(';');
+            if (parameters >= 0) {
+                property = property.substring(0, parameters);
+            }
+            int group = property.indexOf('.');     // e.g. "item1.EMAIL"
+            if (group >= 0) {
+                property = property.substring(group + 1);
+            }
+            String value = line.substring(colon + 1).trim();
+            switch (property.toUpperCase(Locale.ROOT)) {
+                case "FN" -> formattedName = formattedName == null ? unescape(value) : formattedName;
+                case "N" -> structuredName = structuredName == null ? structuredName(value) : structuredName;
+                case "EMAIL" -> email = email == null ? unescape(value) : email;
+                case "TEL" -> phoneNumber = phoneNumber == null ? telephone(value) : phoneNumber;
+                default -> { }
+            }
+        }
+        String name = formattedName != null && !formattedName.isBlank() ? formattedName : structuredName;
+        if (name == null || email == null || phoneNumber == null) {
+            throw new ImportFormatException("vCard is missing " + (name == null ? "a name" : email == null ? "an email" : "a telephone number"));
+        }
+        return new ContactRecord(name, email, phoneNumber);
+    }
+
+    private static String structuredName(String value) {   // N is family;given;additional;prefix;suffix
+        String[] parts = value.split(";", -1);
+        String family = parts.length > 0 ? unescape(parts[0]) : "";
+        String given = parts.length > 1 ? unescape(parts[1]) : "";
+        return (given + " " + family).trim();
+    }
+
+    private static String telephone(String value) {
+        String number = unescape(value);
+        return number.regionMatches(true, 0, "tel:", 0, 4) ? number.substring(4) : number;   // vCard 4.0 uses tel: URIs
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.addressbook.app.index;
+
+import java.util.Locale;
+
+public final class ContactKeys {
+
+    private ContactKeys() {}
+
+    public static String normalizeEmail(String email) {  // emails are compared case-insensitively, so "JSmith@Email.com" and "jsmith@email.com" are the same key
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    public static String normalizePhoneNumber(String phoneNumber) {  // keeps only the digits, so "(555) 123-4567" and "555.123.4567" are the same key
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    public static String reversedDomainKey(String normalizedEmail) {   // "jsmith@mail.ourcorp.com" -> "com.ourcorp.mail@jsmith", so one domain's contacts share a prefix
+        int at = normalizedEmail.lastIndexOf('@');
+        if (at < 0) {
+            return "@" + normalizedEmail;
+        }
+        return reverseDomain(normalizedEmail.substring(at + 1)) + "@" + normalizedEmail.substring(0, at);
+    }
+
+    public static String reverseDomain(String domain) {    // "mail.ourcorp.com" -> "com.ourcorp.mail"
+        StringBuilder reversed = new StringBuilder(domain.length());
+        int end = domain.length();
+        for (int dot = domain.lastIndexOf('.'); dot >= 0; dot = domain.lastIndexOf('.', dot - 1)) {
+            reversed.append(domain, dot + 1, end).append('.');
+            end = dot;
+            if (dot == 0) {
+                break;
+            }
+        }
+        return reversed.append(domain, 0, end).toString();
+    }
+}
@@ -0,0 +1,3 @@
+package com.addressbook.app.index;
+
+public record FuzzyMatch(int id, int distance) {}   // distance is the total number of edits between the query and the name's closest tokens
@@ -0,0 +1,261 @@
+package com.addressbook.app.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+
+public class FuzzyNameIndex {
+    // a BK-tree over the distinct case-folded tokens of every name. The triangle inequality lets a search skip every
+    // subtree whose edge distance differs from the query's distance by more than the limit, so a query only computes
+    // edit distances against a small share of the dictionary, and never against each contact
+
+    private final HashMap<String, Term> terms = new HashMap<>();    // token -> its tree node and the ids whose names contain it
+    private final HashMap<Integer, String[]> tokensById = new HashMap<>();
+    private Term root;
+    private int deadTerms;      // tree nodes whose token no longer appears in any name, skipped by search until the next rebuild
+
+    private static final class Term {
+        private final String token;
+        private int[] ids = new int[2];
+        private int size;
+        private int[] edgeDistances = new int[0];
+        private Term[] children = new Term[0];
+
+        Term(String token) {
+            this.token = token;
+        }
+
+        Term child(int distance) {
+            for (int i = 0; i < edgeDistances.length; i++) {
+                if (edgeDistances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Term child) {
+            edgeDistances = Arrays.copyOf(edgeDistances, edgeDistances.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            edgeDistances[edgeDistances.length - 1] = distance;
+            children[children.length - 1] = child;
+        }
+
+        void addId(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean removeId(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public void add(int id, String name) {
+        remove(id);
+        String[] tokens = Arrays.stream(tokenize(name)).distinct().toArray(String[]::new);
+        tokensById.put(id, tokens);
+        for (String token : tokens) {
+            Term term = terms.get(token);
+            if (term == null) {
+                term = new Term(token);
+                terms.put(token, term);
+                insert(term);
+            } else if (term.size == 0) {
+                deadTerms--;
+            }
+            term.addId(id);
+        }
+    }
+
+    public void remove(int id) {
+        String[] tokens = tokensById.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Term term = terms.get(token);
+            if (term != null && term.removeId(id) && term.size == 0) {
+                deadTerms++;
+            }
+        }
+        if (deadTerms > 1024 && deadTerms > terms.size() / 2) {
+            rebuild();
+        }
+    }
+
+    public void clear() {
+        terms.clear();
+        tokensById.clear();
+        root = null;
+        deadTerms = 0;
+    }
+
+    public int size() {
+        return tokensById.size();
+    }
+
+    public int termCount() {
+        return terms.size() - deadTerms;
+    }
+
+    public List<FuzzyMatch> search(String query, int maxDistance) {
+        // every query token must be within maxDistance edits of some token of the name; a match's distance is the sum
+        // over the query tokens. Short tokens get a tighter limit, so "jo" does not match every four letter name
+        String[] queryTokens = tokenize(query);
+        List<FuzzyMatch> matches = new ArrayList<>();
+        if (queryTokens.length == 0 || root == null) {
+            return matches;
+        }
+        List<HashMap<String, Integer>> closeTerms = new ArrayList<>(queryTokens.length);
+        int rarest = 0;
+        long rarestIds = Long.MAX_VALUE;
+        for (int q = 0; q < queryTokens.length; q++) {
+            HashMap<String, Integer> terms = new HashMap<>();
+            long ids = closeTerms(queryTokens[q], Math.min(maxDistance, queryTokens[q].length() - 1), terms);
+            if (terms.isEmpty()) {
+                return matches;
+            }
+            closeTerms.add(terms);
+            if (ids < rarestIds) {
+                rarest = q;
+                rarestIds = ids;
+            }
+        }
+        IntIntHashMap candidates = new IntIntHashMap();     // only ids reached through the most selective query token are checked
+        for (Map.Entry<String, Integer> entry : closeTerms.get(rarest).entrySet()) {
+            Term term = terms.get(entry.getKey());
+            for (int i = 0; i < term.size; i++) {
+                int best = candidates.get(term.ids[i]);
+                if (best == IntIntHashMap.NO_VALUE || entry.getValue() < best) {
+                    candidates.put(term.ids[i], entry.getValue());
+                }
+            }
+        }
+        for (int id : candidates.keys()) {
+            int total = candidates.get(id);
+            String[] nameTokens = tokensById.get(id);
+            for (int q = 0; q < queryTokens.length && total >= 0; q++) {
+                if (q != rarest) {
+                    int best = closestDistance(nameTokens, closeTerms.get(q));
+                    total = best < 0 ? -1 : total + best;
+                }
+            }
+            if (total >= 0) {
+                matches.add(new FuzzyMatch(id, total));
+            }
+        }
+        return matches;
+    }
+
+    static int levenshtein(String a, String b, int[] previous, int[] current) {    // rows are passed in so a search reuses them
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private long closeTerms(String token, int maxDistance, HashMap<String, Integer> result) {
+        // collects every live term within maxDistance of token with its distance, and returns how many ids those terms hold
+        long ids = 0;
+        int[] previous = new int[64];
+        int[] current = new int[64];
+        Term[] stack = {root};
+        int depth = 1;
+        while (depth > 0) {
+            Term term = stack[--depth];
+            if (term.token.length() + 1 > previous.length) {
+                previous = new int[term.token.length() + 1];
+                current = new int[term.token.length() + 1];
+            }
+            int distance = levenshtein(token, term.token, previous, current);
+            if (distance <= maxDistance && term.size > 0) {
+                result.put(term.token, distance);
+                ids += term.size;
+            }
+            for (int i = 0; i < term.children.length; i++) {
+                if (Math.abs(term.edgeDistances[i] - distance) <= maxDistance) {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = term.children[i];
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static int closestDistance(String[] nameTokens, HashMap<String, Integer> closeTerms) {   // -1 when no token of the name is close
+        int best = -1;
+        for (String token : nameTokens) {
+            Integer distance = closeTerms.get(token);
+            if (distance != null && (best < 0 || distance < best)) {
+                best = distance;
+            }
+        }
+        return best;
+    }
+
+    private void insert(Term term) {
+        if (root == null) {
+            root = term;
+            return;
+        }
+        int[] previous = new int[64];
+        int[] current = new int[64];
+        Term node = root;
+        while (true) {
+            int length = Math.max(term.token.length(), node.token.length()) + 1;
+            if (length > previous.length) {
+                previous = new int[length];
+                current = new int[length];
+            }
+            int distance = levenshtein(term.token, node.token, previous, current);
+            Term child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, term);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private void rebuild() {    // drops the dead tokens, which a BK-tree cannot unlink in place
+        terms.values().removeIf(term -> term.size == 0);
+        List<Term> live = new ArrayList<>(terms.values());
+        root = null;
+        deadTerms = 0;
+        for (Term term : live) {
+            term.edgeDistances = new int[0];
+            term.children = new Term[0];
+            insert(term);
+        }
+    }
+
+    private static String[] tokenize(String name) {
+        String trimmed = name.trim().toLowerCase(Locale.ROOT);
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+    }
+}
@@ -0,0 +1,178 @@
+package com.addressbook.app.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class NGramIndex {    // trigram inverted index over case-folded names, used for substring search
+
+    public static final int GRAM_LENGTH = 3;
+
+    private static final long[] NO_GRAMS = new long[0];
+
+    private final HashMap<Long, PostingList> postings = new HashMap<>();   // trigram -> docs of the names containing it, in no order
+    private final IntIntHashMap docsById = new IntIntHashMap();             // id -> position in foldedNames
+    private int[] docIds = new int[16];
+    private String[] foldedNames = new String[16];
+    private long[][] docGrams = new long[16][];       // each doc's distinct trigrams
+    private int[][] docOffsets = new int[16][];       // parallel to docGrams: where the doc sits in that trigram's posting list
+    private int[] freeDocs = new int[16];     // positions freed by remove(), reused before growing the arrays
+    private int freeCount;
+    private int docCount;
+
+    public void add(int id, String name) {
+        if (docsById.containsKey(id)) {
+            remove(id);
+        }
+        String folded = name.toLowerCase();
+        int doc = freeCount > 0 ? freeDocs[--freeCount] : docCount++;
+        if (doc == docIds.length) {
+            docIds = Arrays.copyOf(docIds, doc * 2);
+            foldedNames = Arrays.copyOf(foldedNames, doc * 2);
+            docGrams = Arrays.copyOf(docGrams, doc * 2);
+            docOffsets = Arrays.copyOf(docOffsets, doc * 2);
+        }
+        long[] grams = distinctGrams(folded);
+        int[] offsets = new int[grams.length];
+        for (int g = 0; g < grams.length; g++) {
+            offsets[g] = postings.computeIfAbsent(grams[g], key -> new PostingList()).add(doc, g);
+        }
+        docIds[doc] = id;
+        foldedNames[doc] = folded;
+        docGrams[doc] = grams;
+        docOffsets[doc] = offsets;
+        docsById.put(id, doc);
+    }
+
+    public void remove(int id) {    // O(trigrams in the name): each posting entry is swap-removed at its recorded offset
+        int doc = docsById.remove(id);
+        if (doc == IntIntHashMap.NO_VALUE) {
+            return;
+        }
+        long[] grams = docGrams[doc];
+        int[] offsets = docOffsets[doc];
+        for (int g = 0; g < grams.length; g++) {
+            PostingList list = postings.get(grams[g]);
+            int last = list.size - 1;
+            if (offsets[g] != last) {   // move the last entry into the hole and tell its doc where it went
+                int movedDoc = list.docs[last];
+                int movedGram = list.gramIndexes[last];
+                list.docs[offsets[g]] = movedDoc;
+                list.gramIndexes[offsets[g]] = movedGram;
+                docOffsets[movedDoc][movedGram] = offsets[g];
+            }
+            list.size = last;
+            if (last == 0) {
+                postings.remove(grams[g]);
+            }
+        }
+        foldedNames[doc] = null;
+        docGrams[doc] = null;
+        docOffsets[doc] = null;
+        if (freeCount == freeDocs.length) {
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        }
+        freeDocs[freeCount++] = doc;
+    }
+
+    public void clear() {
+        postings.clear();
+        docsById.clear();
+        Arrays.fill(foldedNames, null);
+        Arrays.fill(docGrams, null);
+        Arrays.fill(docOffsets, null);
+        freeCount = 0;
+        docCount = 0;
+    }
+
+    public int size() {
+        return docsById.size();
+    }
+
+    public int gramCount() {
+        return postings.size();
+    }
+
+    public int[] search(String query) {    // returns the ids of every name containing the query, ignoring case, in no particular order
+        String folded = query.toLowerCase();
+        if (folded.length() < GRAM_LENGTH) {
+            return scan(folded);
+        }
+        PostingList rarest = null;
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            PostingList list = postings.get(gram(folded, i));
+            if (list == null) {
+                return new int[0];
+            }
+            if (rarest == null || list.size < rarest.size) {
+                rarest = list;
+            }
+        }
+        // every match holds the rarest trigram, and a substring check settles each of its docs outright, so the other lists
+        // are only used to pick it
+        int[] matches = new int[rarest.size];
+        int count = 0;
+        for (int i = 0; i < rarest.size; i++) {
+            int doc = rarest.docs[i];
+            if (foldedNames[doc].contains(folded)) {
+                matches[count++] = docIds[doc];
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    public boolean matches(int id, String foldedQuery) {    // checks one indexed name against an already case-folded query
+        int doc = docsById.get(id);
+        return doc != IntIntHashMap.NO_VALUE && foldedNames[doc].contains(foldedQuery);
+    }
+
+    private int[] scan(String folded) {   // queries shorter than a trigram cannot use the postings
+        int[] matches = new int[docsById.size()];
+        int count = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            String name = foldedNames[doc];
+            if (name != null && name.contains(folded)) {
+                matches[count++] = docIds[doc];
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private static long[] distinctGrams(String folded) {
+        int count = folded.length() - GRAM_LENGTH + 1;
+        if (count <= 0) {
+            return NO_GRAMS;
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = gram(folded, i);
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == count ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    private static long gram(String folded, int start) {
+        return ((long) folded.charAt(start) << 32) | ((long) folded.charAt(start + 1) << 16) | folded.charAt(start + 2);
+    }
+
+    private static class PostingList {     // unsorted, so adds append and removes swap the last entry into the hole
+        private int[] docs = new int[4];
+        private int[] gramIndexes = new int[4];    // which of the doc's trigrams this entry is, to fix up its offset when it moves
+        private int size;
+
+        int add(int doc, int gramIndex) {   // returns the entry's offset
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                gramIndexes = Arrays.copyOf(gramIndexes, size * 2);
+            }
+            docs[size] = doc;
+            gramIndexes[size] = gramIndex;
+            return size++;
+        }
+    }
+}
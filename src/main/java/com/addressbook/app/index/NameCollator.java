@@ -0,0 +1,34 @@
+package com.addressbook.app.index;
+
+import java.text.Collator;
+import java.util.Locale;
+
+public final class NameCollator {
+    // turns names into byte sort keys for a locale once, when a contact is added or renamed, so sorting afterwards compares
+    // bytes instead of running the collator on every comparison. Case and accents only break ties between otherwise equal
+    // names, so "anne", "Anne" and "Änne" sort together rather than by code unit
+
+    private final Locale locale;
+    private final Collator collator;
+
+    public NameCollator(Locale locale) {
+        this.locale = locale;
+        this.collator = Collator.getInstance(locale);
+        collator.setStrength(Collator.TERTIARY);
+        collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);    // so a precomposed "é" and "e" plus a combining accent sort the same
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public NameKey keyFor(String name, int id) {
+        return new NameKey(name, id, sortKey(name));
+    }
+
+    public byte[] sortKey(String name) {
+        synchronized (collator) {   // Collator instances are not thread-safe
+            return collator.getCollationKey(name).toByteArray();
+        }
+    }
+}
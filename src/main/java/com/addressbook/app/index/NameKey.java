@@ -0,0 +1,41 @@
+package com.addressbook.app.index;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public record NameKey(String name, int id, byte[] collationKey) implements Comparable<NameKey> {
+    // orders contacts by name, with the id breaking ties between equal names. With a collation key (see NameCollator) names
+    // sort by locale rules at the cost of one unsigned byte comparison; without one they sort by UTF-16 code units. Keys
+    // kept in one collection should either all have a collation key or all lack one
+
+    public NameKey(String name, int id) {
+        this(name, id, null);
+    }
+
+    @Override
+    public int compareTo(NameKey other) {
+        if (collationKey != null && other.collationKey != null) {
+            int byCollation = Arrays.compareUnsigned(collationKey, other.collationKey);
+            if (byCollation != 0) {
+                return byCollation;
+            }
+        }
+        int byName = name.compareTo(other.name);    // also separates names the collator considers equal, so the order is total
+        return byName != 0 ? byName : Integer.compare(id, other.id);
+    }
+
+    @Override
+    public boolean equals(Object other) {   // the collation key is derived from the name, so it takes no part in equality
+        return other instanceof NameKey key && id == key.id && name.equals(key.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, id);
+    }
+
+    @Override
+    public String toString() {
+        return "NameKey[name=" + name + ", id=" + id + "]";
+    }
+}
@@ -0,0 +1,211 @@
+package com.addressbook.app.index;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+public final class PersistentSortedMap<K extends Comparable<K>, V> implements Iterable<V> {
+    // an immutable AVL tree: put and remove copy only the O(log n) nodes on the path to the key and return a new map that
+    // shares every other node with this one, so any number of versions can be kept and read without locks
+
+    private static final PersistentSortedMap<?, ?> EMPTY = new PersistentSortedMap<>(null, 0);
+
+    private final Node<K, V> root;
+    private final int size;
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+        private final int height;
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private PersistentSortedMap(Node<K, V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K extends Comparable<K>, V> PersistentSortedMap<K, V> empty() {
+        return (PersistentSortedMap<K, V>) EMPTY;
+    }
+
+    public V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int comparison = key.compareTo(node.key);
+            if (comparison == 0) {
+                return node.value;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    public PersistentSortedMap<K, V> put(K key, V value) {    // values must not be null, get() uses null for a missing key
+        if (value == null) {
+            throw new IllegalArgumentException("Persistent map values cannot be null");
+        }
+        boolean added = !containsKey(key);
+        return new PersistentSortedMap<>(put(root, key, value), added ? size + 1 : size);
+    }
+
+    public PersistentSortedMap<K, V> remove(K key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        return new PersistentSortedMap<>(remove(root, key), size - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Cursor<K, V> cursor = new Cursor<>(root, null); cursor.hasNext(); ) {
+            Node<K, V> node = cursor.next();
+            action.accept(node.key, node.value);
+        }
+    }
+
+    @Override
+    public Iterator<V> iterator() {     // values in key order
+        return valuesAfter(null);
+    }
+
+    public Iterator<V> valuesAfter(K after) {   // values whose keys are strictly greater than after, all of them when after is null
+        Cursor<K, V> cursor = new Cursor<>(root, after);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return cursor.next().value;
+            }
+        };
+    }
+
+    private static <K extends Comparable<K>, V> Node<K, V> put(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        int comparison = key.compareTo(node.key);
+        if (comparison == 0) {
+            return new Node<>(key, value, node.left, node.right);
+        }
+        return comparison < 0
+                ? balance(node.key, node.value, put(node.left, key, value), node.right)
+                : balance(node.key, node.value, node.left, put(node.right, key, value));
+    }
+
+    private static <K extends Comparable<K>, V> Node<K, V> remove(Node<K, V> node, K key) {     // key is known to be present
+        int comparison = key.compareTo(node.key);
+        if (comparison < 0) {
+            return balance(node.key, node.value, remove(node.left, key), node.right);
+        }
+        if (comparison > 0) {
+            return balance(node.key, node.value, node.left, remove(node.right, key));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, remove(node.right, successor.key));
+    }
+
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int skew = height(left) - height(right);
+        if (skew > 1) {
+            if (height(left.left) < height(left.right)) {      // left-right case: rotate the left child first
+                left = rotateLeft(left.key, left.value, left.left, left.right);
+            }
+            return rotateRight(key, value, left, right);
+        }
+        if (skew < -1) {
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right.key, right.value, right.left, right.right);
+            }
+            return rotateLeft(key, value, left, right);
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static <K, V> Node<K, V> rotateRight(K key, V value, Node<K, V> left, Node<K, V> right) {
+        return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+    }
+
+    private static <K, V> Node<K, V> rotateLeft(K key, V value, Node<K, V> left, Node<K, V> right) {
+        return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Cursor<K extends Comparable<K>, V> {    // in-order walk with an explicit stack of pending ancestors
+        @SuppressWarnings("unchecked")
+        private Node<K, V>[] stack = (Node<K, V>[]) new Node<?, ?>[16];
+        private int depth;
+
+        Cursor(Node<K, V> root, K after) {
+            Node<K, V> node = root;
+            while (node != null) {
+                if (after != null && node.key.compareTo(after) <= 0) {
+                    node = node.right;      // this node and its left subtree are not after the key
+                } else {
+                    push(node);
+                    node = node.left;
+                }
+            }
+        }
+
+        boolean hasNext() {
+            return depth > 0;
+        }
+
+        Node<K, V> next() {
+            if (depth == 0) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = stack[--depth];
+            for (Node<K, V> child = node.right; child != null; child = child.left) {
+                push(child);
+            }
+            return node;
+        }
+
+        private void push(Node<K, V> node) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+            }
+            stack[depth++] = node;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.addressbook.app.index;
+
+import java.util.Arrays;
+
+public class PrefixTrie {   // radix trie mapping unique string keys to ids; a prefix query costs the prefix length plus the size of the matching subtree
+
+    public static final int NO_ID = -1;
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node(NO_CHARS);
+    private int size;
+
+    private static final class Node {   // one node per branch point or key end, so a key costs one leaf rather than one node per character
+        private char[] edge;                    // characters on the edge from the parent, never empty below the root
+        private Node[] children = NO_CHILDREN;  // sorted by the first character of their edge
+        private int id = NO_ID;
+
+        Node(char[] edge) {
+            this.edge = edge;
+        }
+
+        int indexOf(char first) {   // binary search like Arrays.binarySearch, negative insertion point when absent
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char label = children[mid].edge[0];
+                if (label < first) {
+                    low = mid + 1;
+                } else if (label > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insertChild(int index, Node child) {
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newChildren[index] = child;
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            children = newChildren;
+        }
+
+        void removeChild(int index) {
+            if (children.length == 1) {
+                children = NO_CHILDREN;
+                return;
+            }
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+            children = newChildren;
+        }
+    }
+
+    public void put(String key, int id) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.indexOf(key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i).toCharArray());
+                leaf.id = id;
+                node.insertChild(-index - 1, leaf);
+                size++;
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonLength(child.edge, key, i);
+            if (common < child.edge.length) {   // the key leaves this edge part way along, split it there
+                Node branch = new Node(Arrays.copyOf(child.edge, common));
+                child.edge = Arrays.copyOfRange(child.edge, common, child.edge.length);
+                branch.children = new Node[] {child};
+                node.children[index] = branch;
+                child = branch;
+            }
+            node = child;
+            i += common;
+        }
+        if (node.id == NO_ID) {
+            size++;
+        }
+        node.id = id;
+    }
+
+    public int get(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.indexOf(key.charAt(i));
+            if (index < 0) {
+                return NO_ID;
+            }
+            node = node.children[index];
+            if (commonLength(node.edge, key, i) < node.edge.length) {
+                return NO_ID;
+            }
+            i += node.edge.length;
+        }
+        return node.id;
+    }
+
+    public boolean remove(String key, int id) {     // only removes the key while it still maps to id, like Map.remove(key, value)
+        if (id == NO_ID) {
+            return false;
+        }
+        Node grandparent = null;
+        Node parent = null;
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.indexOf(key.charAt(i));
+            if (index < 0) {
+                return false;
+            }
+            grandparent = parent;
+            parent = node;
+            node = node.children[index];
+            if (commonLength(node.edge, key, i) < node.edge.length) {
+                return false;
+            }
+            i += node.edge.length;
+        }
+        if (node.id != id) {
+            return false;
+        }
+        node.id = NO_ID;
+        size--;
+        if (parent == null) {
+            return true;
+        }
+        if (node.children.length == 1) {
+            mergeWithOnlyChild(parent, node);
+        } else if (node.children.length == 0) {     // drop the leaf, which may leave its parent as a pass-through node
+            parent.removeChild(parent.indexOf(node.edge[0]));
+            if (grandparent != null && parent.id == NO_ID && parent.children.length == 1) {
+                mergeWithOnlyChild(grandparent, parent);
+            }
+        }
+        return true;
+    }
+
+    public int[] withPrefix(String prefix) {     // ids of every key starting with prefix, in key order
+        return withPrefix(prefix, Integer.MAX_VALUE);
+    }
+
+    public int[] withPrefix(String prefix, int limit) {
+        if (limit <= 0) {
+            return new int[0];
+        }
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.indexOf(prefix.charAt(i));
+            if (index < 0) {
+                return new int[0];
+            }
+            node = node.children[index];
+            int common = commonLength(node.edge, prefix, i);
+            if (common < node.edge.length && i + common < prefix.length()) {  // a prefix ending mid edge still matches everything below it
+                return new int[0];
+            }
+            i += common;
+        }
+        IdCollector collector = new IdCollector(limit);
+        collector.collect(node);
+        return Arrays.copyOf(collector.ids, collector.count);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root.children = NO_CHILDREN;
+        root.id = NO_ID;
+        size = 0;
+    }
+
+    private static int commonLength(char[] edge, String key, int from) {
+        int max = Math.min(edge.length, key.length() - from);
+        int i = 0;
+        while (i < max && edge[i] == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void mergeWithOnlyChild(Node parent, Node node) {   // folds a keyless node into its single child to keep the trie compressed
+        Node child = node.children[0];
+        char[] edge = Arrays.copyOf(node.edge, node.edge.length + child.edge.length);
+        System.arraycopy(child.edge, 0, edge, node.edge.length, child.edge.length);
+        child.edge = edge;
+        parent.children[parent.indexOf(edge[0])] = child;
+    }
+
+    private static final class IdCollector {
+        private final int limit;
+        private int[] ids = new int[16];
+        private int count;
+
+        IdCollector(int limit) {
+            this.limit = limit;
+        }
+
+        void collect(Node start) {   // depth first with an explicit stack, keys can be longer than a safe recursion depth
+            Node[] stack = {start};
+            int depth = 1;
+            while (depth > 0 && count < limit) {
+                Node node = stack[--depth];
+                if (node.id != NO_ID) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = node.id;
+                }
+                if (depth + node.children.length > stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(stack.length * 2, depth + node.children.length));
+                }
+                for (int i = node.children.length - 1; i >= 0; i--) {  // pushed in reverse so the smallest edge is visited first
+                    stack[depth++] = node.children[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.addressbook.app.index;
+
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+public class SortedNameIndex implements Iterable<NameKey> {    // keeps contact ids in name order so listings never need a sort
+
+    private final TreeSet<NameKey> keys = new TreeSet<>();
+
+    public void add(int id, String name) {
+        keys.add(new NameKey(name, id));
+    }
+
+    public void add(NameKey key) {
+        keys.add(key);
+    }
+
+    public void remove(int id, String name) {
+        keys.remove(new NameKey(name, id));
+    }
+
+    public void remove(NameKey key) {
+        keys.remove(key);
+    }
+
+    public void clear() {
+        keys.clear();
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public Iterator<NameKey> iterator() {
+        return keys.iterator();
+    }
+
+    public NavigableSet<NameKey> after(NameKey cursor) {     // everything that sorts strictly after the cursor
+        return keys.tailSet(cursor, false);
+    }
+}
@@ -0,0 +1,93 @@
+package com.addressbook.app.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class AddressBookMetrics {
+    // one per address book; validation happens in Contact before any book is involved, so all books share its stats
+
+    public static final OperationStats VALIDATION = new OperationStats();
+
+    private final EnumMap<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+    private final Map<String, IntSupplier> gauges = Collections.synchronizedMap(new LinkedHashMap<>());
+    private ObjectName registeredName;
+
+    public AddressBookMetrics() {
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, operation == Operation.VALIDATION ? VALIDATION : new OperationStats());
+        }
+    }
+
+    public void record(Operation operation, long startNanos, boolean failed) {
+        operations.get(operation).record(startNanos, failed);
+    }
+
+    public OperationStats get(Operation operation) {
+        return operations.get(operation);
+    }
+
+    public void registerGauge(String name, IntSupplier value) {     // read when the metrics are viewed, e.g. the number of contacts
+        gauges.put(name, value);
+    }
+
+    public Map<String, Integer> readGauges() {
+        Map<String, Integer> values = new LinkedHashMap<>();
+        synchronized (gauges) {
+            for (Map.Entry<String, IntSupplier> gauge : gauges.entrySet()) {
+                values.put(gauge.getKey(), gauge.getValue().getAsInt());
+            }
+        }
+        return values;
+    }
+
+    public void reset() {
+        for (OperationStats stats : operations.values()) {
+            stats.reset();
+        }
+    }
+
+    public void writeReport(Appendable out) throws IOException {
+        out.append(String.format("%-11s %10s %9s %10s %10s %10s %10s%n", "Operation", "Calls", "Failures", "p50 (us)", "p99 (us)", "p999 (us)", "max (us)"));
+        for (Operation operation : Operation.values()) {
+            OperationStats stats = operations.get(operation);
+            LatencyHistogram latency = stats.getLatency();
+            out.append(String.format("%-11s %10d %9d %10.1f %10.1f %10.1f %10.1f%n", operation.getDisplayName(), stats.getCalls(), stats.getFailures(),
+                    micros(latency.getPercentileNanos(50)), micros(latency.getPercentileNanos(99)),
+                    micros(latency.getPercentileNanos(99.9)), micros(latency.getMaxNanos())));
+        }
+        for (Map.Entry<String, Integer> gauge : readGauges().entrySet()) {
+            out.append(gauge.getKey()).append(": ").append(String.valueOf(gauge.getValue())).append(System.lineSeparator());
+        }
+    }
+
+    public synchronized ObjectName registerMBean(String name) throws JMException {   // exposes these metrics over JMX as com.addressbook.app:type=AddressBook,name=<name>
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("com.addressbook.app:type=AddressBook,name=" + ObjectName.quote(name));
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        server.registerMBean(new MetricsMBean(this), objectName);
+        registeredName = objectName;
+        return objectName;
+    }
+
+    public synchronized void unregisterMBean() throws JMException {
+        if (registeredName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            registeredName = null;
+        }
+    }
+
+    static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
@@ -0,0 +1,106 @@
+package com.addressbook.app.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+class MetricsMBean implements DynamicMBean {
+    // read-only attributes named <Operation><Statistic>, e.g. AddCalls or SearchP99Micros, plus one per gauge,
+    // and a resetStatistics operation
+
+    private static final String[] STATISTICS = {"Calls", "Failures", "P50Micros", "P99Micros", "P999Micros", "MaxMicros"};
+
+    private final AddressBookMetrics metrics;
+
+    MetricsMBean(AddressBookMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        for (Operation operation : Operation.values()) {
+            String prefix = operation.getDisplayName();
+            if (attribute.startsWith(prefix)) {
+                Object value = statistic(metrics.get(operation), attribute.substring(prefix.length()));
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        Integer gauge = metrics.readGauges().get(attribute);
+        if (gauge == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return gauge;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList values = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                values.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // left out of the list, as the DynamicMBean contract asks
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if ("resetStatistics".equals(actionName)) {
+            metrics.reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            for (String statistic : STATISTICS) {
+                String type = statistic.endsWith("Micros") ? "double" : "long";
+                attributes.add(new MBeanAttributeInfo(operation.getDisplayName() + statistic, type, operation.getDisplayName() + " " + statistic, true, false, false));
+            }
+        }
+        for (Map.Entry<String, Integer> gauge : metrics.readGauges().entrySet()) {
+            attributes.add(new MBeanAttributeInfo(gauge.getKey(), "int", gauge.getKey(), true, false, false));
+        }
+        MBeanOperationInfo reset = new MBeanOperationInfo("resetStatistics", "Clears latencies and counters", null, "void", MBeanOperationInfo.ACTION);
+        return new MBeanInfo(AddressBookMetrics.class.getName(), "Address book operation metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[] {reset}, null);
+    }
+
+    private static Object statistic(OperationStats stats, String statistic) {
+        return switch (statistic) {
+            case "Calls" -> stats.getCalls();
+            case "Failures" -> stats.getFailures();
+            case "P50Micros" -> AddressBookMetrics.micros(stats.getLatency().getPercentileNanos(50));
+            case "P99Micros" -> AddressBookMetrics.micros(stats.getLatency().getPercentileNanos(99));
+            case "P999Micros" -> AddressBookMetrics.micros(stats.getLatency().getPercentileNanos(99.9));
+            case "MaxMicros" -> AddressBookMetrics.micros(stats.getLatency().getMaxNanos());
+            default -> null;
+        };
+    }
+}
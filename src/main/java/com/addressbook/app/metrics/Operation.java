@@ -0,0 +1,21 @@
+package com.addressbook.app.metrics;
+
+public enum Operation {
+    ADD("Add"),
+    EDIT("Edit"),
+    REMOVE("Remove"),
+    SEARCH("Search"),
+    LIST("List"),
+    BATCH("Batch"),
+    VALIDATION("Validation");
+
+    private final String displayName;
+
+    Operation(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,36 @@
+package com.addressbook.app.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationStats {   // latency, calls and failures of one kind of operation
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public void record(long startNanos, boolean failed) {   // pass the System.nanoTime() taken when the operation started
+        latency.record(System.nanoTime() - startNanos);
+        calls.increment();
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public void reset() {
+        latency.reset();
+        calls.reset();
+        failures.reset();
+    }
+}
@@ -0,0 +1,212 @@
+package com.addressbook.app.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.addressbook.app.ConcurrentAddressBook;
+import com.addressbook.app.Contact;
+import com.addressbook.app.ContactPage;
+import com.addressbook.app.index.NameKey;
+
+public class DurableAddressBook implements Closeable {
+    // every change is checked, appended to the write-ahead log and only then applied to the in-memory book, all under one lock,
+    // so the log order matches the order changes were made in and readers never see a change the log failed to take. The wait
+    // for fsync happens after the lock is released, letting writers share it
+
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 100_000;
+
+    private final ConcurrentAddressBook book = new ConcurrentAddressBook();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final AtomicLong recordsSinceCheckpoint = new AtomicLong();
+    private final Path directory;
+    private final long checkpointInterval;
+    private final WriteAheadLog log;
+
+    private DurableAddressBook(Path directory, FsyncPolicy policy, long checkpointInterval) throws IOException {
+        this.directory = directory;
+        this.checkpointInterval = checkpointInterval;
+        Files.createDirectories(directory);
+        long sequence = 0;
+        Path snapshotPath = SnapshotFile.latest(directory);
+        if (snapshotPath != null) {
+            SnapshotFile.Snapshot snapshot = SnapshotFile.load(snapshotPath);
+            Contact.advanceIdsPast(snapshot.getIdHighWaterMark() - 1);
+            for (int i = 0; i < snapshot.size(); i++) {
+                book.addContact(snapshot.getContact(i));     // trusted, so no validation
+            }
+            sequence = snapshot.getSequence();
+        }
+        sequence = WriteAheadLog.replay(directory, sequence, this::apply);
+        this.log = new WriteAheadLog(directory, policy, sequence);
+    }
+
+    public static DurableAddressBook open(Path directory, FsyncPolicy policy) throws IOException {
+        return open(directory, policy, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public static DurableAddressBook open(Path directory, FsyncPolicy policy, long checkpointInterval) throws IOException {
+        // loads the latest snapshot, replays the log written after it, and then accepts new changes; an interval of 0 disables automatic checkpoints
+        return new DurableAddressBook(directory, policy, checkpointInterval);
+    }
+
+    public void addContact(Contact contact) {
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            if (book.checkAdd(contact).isSuccess()) {
+                sequence = append(LogRecord.add(contact.getId(), contact.getName(), contact.getEmail(), contact.getPhoneNumber()));
+            }
+            book.addContact(contact);   // applies a logged change, or fails exactly as the book does (duplicates throw) with nothing logged
+        } finally {
+            writeLock.unlock();
+        }
+        afterWrite(sequence);
+    }
+
+    public void removeContact(int id) {
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            if (book.findContact(id) != null) {
+                sequence = append(LogRecord.remove(id));
+            }
+            book.removeContact(id);
+        } finally {
+            writeLock.unlock();
+        }
+        afterWrite(sequence);
+    }
+
+    public void editContact(int id, String name, String email, String phoneNumber) {
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            if (book.checkEdit(id, name, email, phoneNumber).isSuccess()) {
+                sequence = append(LogRecord.edit(id, name, email, phoneNumber));
+            }
+            book.editContact(id, name, email, phoneNumber);
+        } finally {
+            writeLock.unlock();
+        }
+        afterWrite(sequence);
+    }
+
+    public void deleteAll() {
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            if (book.size() > 0) {
+                sequence = append(LogRecord.deleteAll());
+            }
+            book.deleteAll();
+        } finally {
+            writeLock.unlock();
+        }
+        afterWrite(sequence);
+    }
+
+    public void checkpoint() throws IOException {   // writes a snapshot and drops the log segments it covers
+        checkpointLock.lock();
+        try {
+            List<SavedContact> contacts = new ArrayList<>(book.size());
+            long sequence;
+            int idHighWaterMark;
+            writeLock.lock();
+            try {   // copy the fields while no writer can change them, then write the file without blocking writers
+                for (Contact contact : book.getContacts()) {
+                    contacts.add(new SavedContact(contact.getId(), contact.getName(), contact.getEmail(), contact.getPhoneNumber()));
+                }
+                sequence = log.roll();
+                idHighWaterMark = Contact.getIdHighWaterMark();
+                recordsSinceCheckpoint.set(0);
+            } finally {
+                writeLock.unlock();
+            }
+            Path snapshot = SnapshotFile.write(directory, sequence, idHighWaterMark, contacts);
+            SnapshotFile.deleteOlderThan(directory, snapshot);
+            WriteAheadLog.deleteSegmentsUpTo(directory, sequence);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    public Contact findContact(int id) {
+        return book.findContact(id);
+    }
+
+    public int size() {
+        return book.size();
+    }
+
+    public List<Contact> getContacts() {
+        return book.getContacts();
+    }
+
+    public String getAllContacts() {
+        return book.getAllContacts();
+    }
+
+    public void writeAllContacts(Appendable out) throws IOException {
+        book.writeAllContacts(out);
+    }
+
+    public ContactPage getContactsPage(NameKey after, int pageSize) {
+        return book.getContactsPage(after, pageSize);
+    }
+
+    public List<Contact> filterContactsByName(String name) {
+        return book.filterContactsByName(name);
+    }
+
+    public void searchContacts(String name) {
+        book.searchContacts(name);
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private long append(LogRecord record) {
+        try {
+            return log.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to log change", e);
+        }
+    }
+
+    private void afterWrite(long sequence) {
+        if (sequence == 0) {
+            return;
+        }
+        try {
+            log.awaitDurable(sequence);
+            if (checkpointInterval > 0 && recordsSinceCheckpoint.incrementAndGet() >= checkpointInterval && checkpointLock.tryLock()) {
+                try {
+                    checkpoint();
+                } finally {
+                    checkpointLock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to make change durable", e);
+        }
+    }
+
+    private void apply(LogRecord record) {
+        switch (record.type()) {
+            case ADD -> book.addContact(Contact.restore(record.id(), record.name(), record.email(), record.phoneNumber()));
+            case EDIT -> book.editContact(record.id(), record.name(), record.email(), record.phoneNumber());
+            case REMOVE -> book.removeContact(record.id());
+            case DELETE_ALL -> book.clear();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.addressbook.app.persistence;
+
+public record FsyncPolicy(Mode mode, long intervalMillis) {
+
+    public enum Mode {
+        PER_WRITE,      // every record is forced to disk before append returns
+        PER_BATCH,      // writers waiting at the same time share one fsync (group commit)
+        INTERVAL        // a background thread forces the log every intervalMillis, writers do not wait
+    }
+
+    public FsyncPolicy {
+        if (mode == Mode.INTERVAL && intervalMillis <= 0) {
+            throw new IllegalArgumentException("Fsync interval must be positive");
+        }
+    }
+
+    public static FsyncPolicy perWrite() {
+        return new FsyncPolicy(Mode.PER_WRITE, 0);
+    }
+
+    public static FsyncPolicy perBatch() {
+        return new FsyncPolicy(Mode.PER_BATCH, 0);
+    }
+
+    public static FsyncPolicy everyMillis(long intervalMillis) {
+        return new FsyncPolicy(Mode.INTERVAL, intervalMillis);
+    }
+}
@@ -0,0 +1,35 @@
+package com.addressbook.app.persistence;
+
+public record LogRecord(Type type, long sequence, int id, String name, String email, String phoneNumber) {
+
+    public enum Type {
+        ADD,
+        EDIT,
+        REMOVE,
+        DELETE_ALL
+    }
+
+    public static LogRecord add(int id, String name, String email, String phoneNumber) {
+        return new LogRecord(Type.ADD, 0, id, name, email, phoneNumber);
+    }
+
+    public static LogRecord edit(int id, String name, String email, String phoneNumber) {
+        return new LogRecord(Type.EDIT, 0, id, name, email, phoneNumber);
+    }
+
+    public static LogRecord remove(int id) {
+        return new LogRecord(Type.REMOVE, 0, id, null, null, null);
+    }
+
+    public static LogRecord deleteAll() {
+        return new LogRecord(Type.DELETE_ALL, 0, 0, null, null, null);
+    }
+
+    LogRecord withSequence(long sequence) {
+        return new LogRecord(type, sequence, id, name, email, phoneNumber);
+    }
+
+    boolean hasFields() {
+        return type == Type.ADD || type == Type.EDIT;
+    }
+}
@@ -0,0 +1,3 @@
+package com.addressbook.app.persistence;
+
+public record SavedContact(int id, String name, String email, String phoneNumber) {}    // a contact's fields copied out at checkpoint time
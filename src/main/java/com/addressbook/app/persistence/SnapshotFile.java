@@ -0,0 +1,182 @@
+package com.addressbook.app.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.addressbook.app.Contact;
+
+public final class SnapshotFile {   // a checkpoint of the whole book, named after the last log sequence it includes
+    // layout, all big-endian:
+    //   header   [magic][version][log sequence: long][id high water mark]
+    //   records  per contact [name length][name UTF-8][email length][email UTF-8][phone length][phone UTF-8]
+    //   id table per contact [id][record offset]
+    //   trailer  [id table offset][contact count][magic]
+    // the id table and trailer come last so the whole file is written in one sequential pass
+
+    private static final int MAGIC = 0x41424B32;     // "ABK2"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 20;
+    private static final int TRAILER_SIZE = 12;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".dat";
+
+    private SnapshotFile() {}
+
+    public static class Snapshot {  // a mapped snapshot, read one contact at a time so a large book is never held twice
+
+        private final ByteBuffer buffer;
+        private final long sequence;
+        private final int idHighWaterMark;
+        private final int count;
+        private final int idTableOffset;
+
+        private Snapshot(ByteBuffer buffer, long sequence, int idHighWaterMark, int count, int idTableOffset) {
+            this.buffer = buffer;
+            this.sequence = sequence;
+            this.idHighWaterMark = idHighWaterMark;
+            this.count = count;
+            this.idTableOffset = idTableOffset;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public int getIdHighWaterMark() {
+            return idHighWaterMark;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public int getId(int index) {
+            return buffer.getInt(idTableOffset + index * 8);
+        }
+
+        public Contact getContact(int index) {  // decodes all three fields; trusted, as they were validated before they were saved
+            int entry = idTableOffset + index * 8;
+            int nameOffset = buffer.getInt(entry + 4);
+            int emailOffset = nameOffset + 4 + buffer.getInt(nameOffset);
+            int phoneNumberOffset = emailOffset + 4 + buffer.getInt(emailOffset);
+            return Contact.restore(buffer.getInt(entry), decode(nameOffset), decode(emailOffset), decode(phoneNumberOffset));
+        }
+
+        private String decode(int fieldOffset) {    // [length][UTF-8 bytes]
+            byte[] bytes = new byte[buffer.getInt(fieldOffset)];
+            buffer.get(fieldOffset + 4, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static Path write(Path directory, long sequence, int idHighWaterMark, List<SavedContact> contacts) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        int[] offsets = new int[contacts.size()];
+        try (OutputStream file = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sequence);
+            out.writeInt(idHighWaterMark);
+            long position = HEADER_SIZE;
+            for (int i = 0; i < offsets.length; i++) {
+                SavedContact contact = contacts.get(i);
+                offsets[i] = (int) position;
+                position += writeString(out, contact.name());
+                position += writeString(out, contact.email());
+                position += writeString(out, contact.phoneNumber());
+                if (position + (long) (offsets.length + 1) * 8 + TRAILER_SIZE > Integer.MAX_VALUE) {
+                    throw new IOException("Snapshot would exceed the 2 GB that can be mapped at once");
+                }
+            }
+            long idTableOffset = position;
+            for (int i = 0; i < offsets.length; i++) {
+                out.writeInt(contacts.get(i).id());
+                out.writeInt(offsets[i]);
+            }
+            out.writeInt((int) idTableOffset);
+            out.writeInt(offsets.length);
+            out.writeInt(MAGIC);
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);   // readers only ever see a complete snapshot
+        return target;
+    }
+
+    public static Snapshot load(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an address book snapshot: " + snapshot);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);  // the mapping stays valid after the channel is closed
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            int trailer = (int) size - TRAILER_SIZE;
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(trailer + 8) != MAGIC) {
+                throw new IOException("Not an address book snapshot, or an incomplete one: " + snapshot);
+            }
+            int idTableOffset = buffer.getInt(trailer);
+            int count = buffer.getInt(trailer + 4);
+            if (idTableOffset < HEADER_SIZE || (long) idTableOffset + (long) count * 8 != trailer) {
+                throw new IOException("Corrupt snapshot id table: " + snapshot);
+            }
+            return new Snapshot(buffer, buffer.getLong(8), buffer.getInt(16), count, idTableOffset);
+        }
+    }
+
+    public static Path latest(Path directory) throws IOException {   // null when no snapshot has been taken yet
+        List<Path> snapshots = list(directory);
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    public static void deleteOlderThan(Path directory, Path keep) throws IOException {
+        for (Path snapshot : list(directory)) {
+            if (sequence(snapshot) < sequence(keep)) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+
+    private static int writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        return 4 + bytes.length;
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (var paths = Files.list(directory)) {
+            paths.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).forEach(snapshots::add);
+        }
+        snapshots.sort((a, b) -> Long.compare(sequence(a), sequence(b)));
+        return snapshots;
+    }
+
+    private static long sequence(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
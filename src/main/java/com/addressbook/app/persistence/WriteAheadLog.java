@@ -0,0 +1,374 @@
+package com.addressbook.app.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+public class WriteAheadLog implements Closeable {
+    // each record is framed as [body length][crc32 of body][body], so a torn write at the tail is detected on replay
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushFinished = lock.newCondition();
+    private final ScheduledExecutorService intervalFlusher;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();   // appended records not yet written to the segment
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream();
+    private FileChannel segment;
+    private long lastSequence;
+    private long durableSequence;
+    private boolean flushing;
+    private IOException failure;    // once a write fails the log refuses further work, as memory and disk may disagree
+    private boolean closed;
+
+    public WriteAheadLog(Path directory, FsyncPolicy policy, long lastSequence) throws IOException {
+        this.directory = directory;
+        this.policy = policy;
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        Files.createDirectories(directory);
+        this.segment = openSegment(lastSequence + 1);
+        if (policy.mode() == FsyncPolicy.Mode.INTERVAL) {
+            intervalFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            intervalFlusher.scheduleAtFixedRate(this::flushInBackground, policy.intervalMillis(), policy.intervalMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            intervalFlusher = null;
+        }
+    }
+
+    public long append(LogRecord record) throws IOException {   // returns the record's sequence number, pass it to awaitDurable
+        lock.lock();
+        try {
+            checkUsable();
+            long sequence = lastSequence + 1;
+            encode(record.withSequence(sequence), pending);
+            lastSequence = sequence;
+            if (policy.mode() == FsyncPolicy.Mode.PER_WRITE) {
+                waitForFlushToFinish();
+                writePending(segment);
+                segment.force(false);
+                durableSequence = sequence;
+            }
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void awaitDurable(long sequence) throws IOException {
+        if (policy.mode() == FsyncPolicy.Mode.INTERVAL) {
+            return;     // durability is bounded by the interval instead
+        }
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                checkUsable();
+                if (flushing) {
+                    flushFinished.awaitUninterruptibly();   // the current leader's fsync may cover us, otherwise we lead the next one
+                } else {
+                    flushBatch();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long roll() throws IOException {  // closes the current segment and starts a new one, returning the last sequence in the old one
+        lock.lock();
+        try {
+            checkUsable();
+            waitForFlushToFinish();
+            writePending(segment);
+            segment.force(false);
+            segment.close();
+            durableSequence = lastSequence;
+            segment = openSegment(lastSequence + 1);
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (intervalFlusher != null) {
+            intervalFlusher.shutdownNow();
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            waitForFlushToFinish();
+            if (failure == null) {
+                writePending(segment);
+                segment.force(false);
+                durableSequence = lastSequence;
+            }
+            segment.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static long replay(Path directory, long afterSequence, Consumer<LogRecord> consumer) throws IOException {
+        // feeds every intact record newer than afterSequence to consumer, and returns the last sequence found. A segment is cut
+        // back to its last intact record, otherwise records appended after reopening would land behind the torn one and never
+        // be replayed
+        long last = afterSequence;
+        for (Path segment : segments(directory)) {
+            long intactBytes = 0;
+            try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+                DataInputStream in = new DataInputStream(counter);
+                LogRecord record;
+                while ((record = decode(in)) != null) {
+                    intactBytes = counter.count;
+                    if (record.sequence() > last) {
+                        consumer.accept(record);
+                        last = record.sequence();
+                    }
+                }
+            }
+            if (Files.size(segment) > intactBytes) {
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    channel.truncate(intactBytes);
+                    channel.force(false);
+                }
+            }
+        }
+        return last;
+    }
+
+    public static void deleteSegmentsUpTo(Path directory, long sequence) throws IOException {  // drops segments whose records are all covered by a snapshot
+        List<Path> segments = segments(directory);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequence(segments.get(i + 1)) <= sequence + 1) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    private void flushBatch() throws IOException {   // called with the lock held, releases it while writing so other writers can queue up
+        flushing = true;
+        ByteArrayOutputStream batch = pending;
+        pending = spare;
+        long batchEnd = lastSequence;
+        FileChannel channel = segment;
+        IOException error = null;
+        lock.unlock();
+        try {
+            channel.write(ByteBuffer.wrap(batch.toByteArray()));
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+        }
+        batch.reset();
+        spare = batch;
+        flushing = false;
+        if (error != null) {
+            failure = error;
+        } else {
+            durableSequence = Math.max(durableSequence, batchEnd);
+        }
+        flushFinished.signalAll();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void flushInBackground() {
+        lock.lock();
+        try {
+            if (!closed && failure == null && !flushing && durableSequence < lastSequence) {
+                flushBatch();
+            }
+        } catch (IOException e) {
+            // recorded in failure, the next append reports it
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void waitForFlushToFinish() {
+        while (flushing) {
+            flushFinished.awaitUninterruptibly();
+        }
+    }
+
+    private void writePending(FileChannel channel) throws IOException {
+        if (pending.size() > 0) {
+            channel.write(ByteBuffer.wrap(pending.toByteArray()));
+            pending.reset();
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (failure != null) {
+            throw new IOException("Write-ahead log failed earlier", failure);
+        }
+        if (closed) {
+            throw new IOException("Write-ahead log is closed");
+        }
+    }
+
+    private FileChannel openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (var paths = Files.list(directory)) {
+            paths.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(firstSequence(a), firstSequence(b)));
+        return segments;
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void encode(LogRecord record, ByteArrayOutputStream out) throws IOException {
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(64);
+        DataOutputStream body = new DataOutputStream(bodyBytes);
+        body.writeLong(record.sequence());
+        body.writeByte(record.type().ordinal());
+        body.writeInt(record.id());
+        if (record.hasFields()) {
+            writeString(body, record.name());
+            writeString(body, record.email());
+            writeString(body, record.phoneNumber());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bodyBytes.toByteArray());
+        DataOutputStream frame = new DataOutputStream(out);
+        frame.writeInt(bodyBytes.size());
+        frame.writeInt((int) crc.getValue());
+        bodyBytes.writeTo(out);
+    }
+
+    private static LogRecord decode(DataInputStream in) throws IOException {   // returns null at the end of the segment or at a torn or corrupt record
+        byte[] body;
+        int expectedCrc;
+        try {
+            int length = in.readInt();
+            expectedCrc = in.readInt();
+            if (length <= 0 || length > (1 << 24)) {
+                return null;
+            }
+            body = in.readNBytes(length);
+            if (body.length != length) {
+                return null;
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+        DataInputStream fields = new DataInputStream(new ByteArrayInputStream(body));
+        long sequence = fields.readLong();
+        LogRecord.Type type = LogRecord.Type.values()[fields.readByte()];
+        int id = fields.readInt();
+        if (type == LogRecord.Type.ADD || type == LogRecord.Type.EDIT) {
+            return new LogRecord(type, sequence, id, readString(fields), readString(fields), readString(fields));
+        }
+        return new LogRecord(type, sequence, id, null, null, null);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {     // how many bytes decode has consumed so far
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,360 @@
+package com.addressbook.app.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.addressbook.app.Contact;
+import com.addressbook.app.index.IntIntHashMap;
+
+public class ColumnarContactStore implements ContactStore, Iterable<Contact> {
+    // contacts kept as parallel primitive columns instead of one object per contact:
+    //   names and email local parts  UTF-8 in one shared byte arena, referenced as (offset << 32 | length)
+    //   email domains                an int code into a dictionary, as most contacts share a handful of domains
+    //   phone numbers                the digits as a long plus an int code for the layout around them, e.g. "(###) ###-####"
+    // rows are swap-removed, and Contact objects are only made when someone asks for one. Usable on its own by id, or
+    // as an AddressBook's ContactStore through the row methods
+
+    private static final int MAX_PACKED_DIGITS = 18;   // 18 decimal digits always fit in a long
+    private static final char DIGIT = '\0';            // stands for one digit in a phone layout
+    private static final int NO_DOMAIN = -1;
+    private static final int MIN_COMPACTION_BYTES = 1 << 16;
+
+    private final IntIntHashMap rowsById;
+    private final StringDictionary domains = new StringDictionary();
+    private final StringDictionary phoneLayouts = new StringDictionary();
+    private int[] ids;
+    private long[] names;
+    private long[] emailLocalParts;
+    private int[] emailDomains;
+    private long[] phoneDigits;
+    private int[] phoneLayoutCodes;
+    private int size;
+    private byte[] arena;
+    private int arenaSize;
+    private long garbageBytes;     // arena bytes no longer referenced by any row, reclaimed by compact()
+
+    public ColumnarContactStore() {
+        this(16);
+    }
+
+    public ColumnarContactStore(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        rowsById = new IntIntHashMap(capacity);
+        ids = new int[capacity];
+        names = new long[capacity];
+        emailLocalParts = new long[capacity];
+        emailDomains = new int[capacity];
+        phoneDigits = new long[capacity];
+        phoneLayoutCodes = new int[capacity];
+        arena = new byte[capacity * 24];
+    }
+
+    public boolean add(Contact contact) {   // copies the contact's fields in; false if a contact with its id is already stored
+        return add(contact.getId(), contact.getName(), contact.getEmail(), contact.getPhoneNumber());
+    }
+
+    public boolean add(int id, String name, String email, String phoneNumber) {  // the fields are stored as given, validate them first
+        if (rowsById.containsKey(id)) {
+            return false;
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = id;
+        rowsById.put(id, row);
+        write(row, name, email, phoneNumber);
+        return true;
+    }
+
+    public boolean update(int id, String name, String email, String phoneNumber) {
+        int row = rowsById.get(id);
+        if (row == IntIntHashMap.NO_VALUE) {
+            return false;
+        }
+        release(row);
+        write(row, name, email, phoneNumber);
+        compactIfWasteful();
+        return true;
+    }
+
+    public boolean updateName(int id, String name) {    // rewrites only this field, as a view's setter does
+        int row = rowsById.get(id);
+        if (row == IntIntHashMap.NO_VALUE) {
+            return false;
+        }
+        garbageBytes += length(names[row]);
+        names[row] = appendString(name);
+        compactIfWasteful();
+        return true;
+    }
+
+    public boolean updateEmail(int id, String email) {
+        int row = rowsById.get(id);
+        if (row == IntIntHashMap.NO_VALUE) {
+            return false;
+        }
+        garbageBytes += length(emailLocalParts[row]);
+        writeEmail(row, email);
+        compactIfWasteful();
+        return true;
+    }
+
+    public boolean updatePhoneNumber(int id, String phoneNumber) {     // packed in place, nothing is left in the arena
+        int row = rowsById.get(id);
+        if (row == IntIntHashMap.NO_VALUE) {
+            return false;
+        }
+        packPhoneNumber(row, phoneNumber);
+        return true;
+    }
+
+    public boolean remove(int id) {
+        int row = rowsById.remove(id);
+        if (row == IntIntHashMap.NO_VALUE) {
+            return false;
+        }
+        release(row);
+        int last = --size;
+        if (row != last) {     // swap-remove: move the last row into the gap
+            ids[row] = ids[last];
+            names[row] = names[last];
+            emailLocalParts[row] = emailLocalParts[last];
+            emailDomains[row] = emailDomains[last];
+            phoneDigits[row] = phoneDigits[last];
+            phoneLayoutCodes[row] = phoneLayoutCodes[last];
+            rowsById.put(ids[row], row);
+        }
+        compactIfWasteful();
+        return true;
+    }
+
+    @Override
+    public int rowOf(int id) {
+        int row = rowsById.get(id);
+        return row == IntIntHashMap.NO_VALUE ? NO_ROW : row;
+    }
+
+    @Override
+    public Contact contactAt(int row) {
+        return new ContactView(this, ids[checkRow(row)]);
+    }
+
+    @Override
+    public int append(Contact contact) {
+        if (!add(contact)) {
+            throw new IllegalArgumentException("Contact " + contact.getId() + " is already in the store");
+        }
+        return size - 1;
+    }
+
+    @Override
+    public void updateRow(int row, String name, String email, String phoneNumber) {
+        update(ids[checkRow(row)], name, email, phoneNumber);
+    }
+
+    @Override
+    public void removeRow(int row) {
+        remove(ids[checkRow(row)]);
+    }
+
+    public boolean contains(int id) {
+        return rowsById.containsKey(id);
+    }
+
+    public Contact get(int id) {    // a view that reads through to the store, or null; the view stops working once its contact is removed
+        return rowsById.containsKey(id) ? new ContactView(this, id) : null;
+    }
+
+    public String getName(int id) {
+        return readString(names[row(id)]);
+    }
+
+    public String getEmail(int id) {
+        int row = row(id);
+        String localPart = readString(emailLocalParts[row]);
+        return emailDomains[row] == NO_DOMAIN ? localPart : localPart + "@" + domains.decode(emailDomains[row]);
+    }
+
+    public String getPhoneNumber(int id) {
+        int row = row(id);
+        return unpackPhoneNumber(phoneDigits[row], phoneLayouts.decode(phoneLayoutCodes[row]));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        rowsById.clear();
+        domains.clear();
+        phoneLayouts.clear();
+        size = 0;
+        arenaSize = 0;
+        garbageBytes = 0;
+    }
+
+    @Override
+    public Iterator<Contact> iterator() {   // views in storage order; removing while iterating skips or repeats rows, as with any swap-remove list
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size;
+            }
+
+            @Override
+            public Contact next() {
+                if (row >= size) {
+                    throw new NoSuchElementException();
+                }
+                return new ContactView(ColumnarContactStore.this, ids[row++]);
+            }
+        };
+    }
+
+    public long getFootprintBytes() {   // heap held by the columns, the arena, the id map and the dictionaries
+        long columns = ids.length * (4L + 8 + 8 + 4 + 8 + 4);
+        long idMap = rowsById.capacity() * 8L;
+        return columns + arena.length + idMap + domains.footprintBytes() + phoneLayouts.footprintBytes();
+    }
+
+    public int getDomainCount() {
+        return domains.size();
+    }
+
+    public void compact() {     // copies live strings into a fresh arena, dropping the bytes left behind by edits and removals
+        byte[] compacted = new byte[Math.max(MIN_COMPACTION_BYTES, arenaSize - (int) garbageBytes)];
+        int position = 0;
+        for (int row = 0; row < size; row++) {
+            names[row] = copy(names[row], compacted, position);
+            position += length(names[row]);
+            emailLocalParts[row] = copy(emailLocalParts[row], compacted, position);
+            position += length(emailLocalParts[row]);
+        }
+        arena = compacted;
+        arenaSize = position;
+        garbageBytes = 0;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + size);
+        }
+        return row;
+    }
+
+    private int row(int id) {
+        int row = rowsById.get(id);
+        if (row == IntIntHashMap.NO_VALUE) {
+            throw new IllegalStateException("Contact " + id + " is not in the store");
+        }
+        return row;
+    }
+
+    private void write(int row, String name, String email, String phoneNumber) {
+        names[row] = appendString(name);
+        writeEmail(row, email);
+        packPhoneNumber(row, phoneNumber);
+    }
+
+    private void writeEmail(int row, String email) {
+        int at = email.lastIndexOf('@');
+        if (at < 0) {
+            emailLocalParts[row] = appendString(email);
+            emailDomains[row] = NO_DOMAIN;
+        } else {
+            emailLocalParts[row] = appendString(email.substring(0, at));
+            emailDomains[row] = domains.encode(email.substring(at + 1));
+        }
+    }
+
+    private void release(int row) {
+        garbageBytes += length(names[row]) + length(emailLocalParts[row]);
+    }
+
+    private void compactIfWasteful() {
+        if (arenaSize > MIN_COMPACTION_BYTES && garbageBytes > arenaSize / 2) {
+            compact();
+        }
+    }
+
+    private long appendString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (arenaSize + bytes.length > arena.length) {
+            long needed = (long) arenaSize + bytes.length;
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Contact store arena is full");
+            }
+            arena = Arrays.copyOf(arena, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, arena.length * 2L)));
+        }
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        long reference = ((long) arenaSize << 32) | bytes.length;
+        arenaSize += bytes.length;
+        return reference;
+    }
+
+    private String readString(long reference) {
+        return new String(arena, offset(reference), length(reference), StandardCharsets.UTF_8);
+    }
+
+    private long copy(long reference, byte[] target, int position) {
+        System.arraycopy(arena, offset(reference), target, position, length(reference));
+        return ((long) position << 32) | length(reference);
+    }
+
+    private void packPhoneNumber(int row, String phoneNumber) {
+        char[] layout = phoneNumber.toCharArray();
+        long digits = 0;
+        int digitCount = 0;
+        for (int i = 0; i < layout.length; i++) {
+            char c = layout[i];
+            if (c >= '0' && c <= '9') {
+                digits = digits * 10 + (c - '0');
+                layout[i] = DIGIT;
+                digitCount++;
+            }
+        }
+        if (digitCount > MAX_PACKED_DIGITS) {     // too long to pack, keep the number itself as its layout
+            phoneDigits[row] = 0;
+            phoneLayoutCodes[row] = phoneLayouts.encode(phoneNumber);
+        } else {
+            phoneDigits[row] = digits;
+            phoneLayoutCodes[row] = phoneLayouts.encode(new String(layout));
+        }
+    }
+
+    private static String unpackPhoneNumber(long digits, String layout) {
+        char[] phoneNumber = layout.toCharArray();
+        for (int i = phoneNumber.length - 1; i >= 0; i--) {   // fill from the right, so leading zeros come back as well
+            if (phoneNumber[i] == DIGIT) {
+                phoneNumber[i] = (char) ('0' + digits % 10);
+                digits /= 10;
+            }
+        }
+        return new String(phoneNumber);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        emailLocalParts = Arrays.copyOf(emailLocalParts, capacity);
+        emailDomains = Arrays.copyOf(emailDomains, capacity);
+        phoneDigits = Arrays.copyOf(phoneDigits, capacity);
+        phoneLayoutCodes = Arrays.copyOf(phoneLayoutCodes, capacity);
+    }
+
+    private static int offset(long reference) {
+        return (int) (reference >>> 32);
+    }
+
+    private static int length(long reference) {
+        return (int) reference;
+    }
+}
@@ -0,0 +1,25 @@
+package com.addressbook.app.store;
+
+import com.addressbook.app.Contact;
+
+public interface ContactStore {
+    // where an AddressBook keeps its contacts' fields. Rows 0 .. size() - 1 are dense: removeRow moves the last row into
+    // the one it frees, and the book mirrors that move in anything it keeps per row. The book does every check and keeps
+    // every index, so a store only holds fields and trusts what it is given
+
+    int NO_ROW = -1;
+
+    int size();
+
+    int rowOf(int id);      // NO_ROW when the id is not stored
+
+    Contact contactAt(int row);
+
+    int append(Contact contact);    // stores the contact's fields under its id in row size(), which is returned; the id must be new
+
+    void updateRow(int row, String name, String email, String phoneNumber);    // the fields must already be validated
+
+    void removeRow(int row);
+
+    void clear();
+}
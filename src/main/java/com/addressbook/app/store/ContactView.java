@@ -0,0 +1,59 @@
+package com.addressbook.app.store;
+
+import com.addressbook.app.Contact;
+import com.addressbook.app.validation.ContactValidator;
+
+class ContactView extends Contact {
+    // a contact that holds only its id and reads every field from the store when asked. Views are made on demand, so two
+    // views of the same stored contact are equal though not the same object
+
+    private final ColumnarContactStore store;
+
+    ContactView(ColumnarContactStore store, int id) {
+        super(id);
+        this.store = store;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ContactView view && view.store == store && view.getId() == getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(getId());
+    }
+
+    @Override
+    public String getName() {
+        return store.getName(getId());
+    }
+
+    @Override
+    public String getEmail() {
+        return store.getEmail(getId());
+    }
+
+    @Override
+    public String getPhoneNumber() {
+        return store.getPhoneNumber(getId());
+    }
+
+    @Override
+    public void setName(String name) {
+        ContactValidator.timed(() -> ContactValidator.validateName(name));
+        store.updateName(getId(), name);
+    }
+
+    @Override
+    public void setEmail(String email) {
+        ContactValidator.timed(() -> ContactValidator.validateEmail(email));
+        store.updateEmail(getId(), email);
+    }
+
+    @Override
+    public void setPhoneNumber(String phoneNumber) {
+        ContactValidator.timed(() -> ContactValidator.validatePhoneNumber(phoneNumber));
+        store.updatePhoneNumber(getId(), phoneNumber);
+    }
+}
@@ -0,0 +1,40 @@
+package com.addressbook.app.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+final class StringDictionary {  // interns a small set of repeated values, such as email domains, as dense int codes
+
+    private final HashMap<String, Integer> codes = new HashMap<>();
+    private final ArrayList<String> values = new ArrayList<>();
+    private long characters;
+
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+            characters += value.length();
+        }
+        return code;
+    }
+
+    String decode(int code) {
+        return values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    void clear() {
+        codes.clear();
+        values.clear();
+        characters = 0;
+    }
+
+    long footprintBytes() {     // roughly: each entry is a String with its array, a boxed code and a hash map node
+        return characters + values.size() * 120L;
+    }
+}
@@ -0,0 +1,7 @@
+package com.addressbook.app.validation;
+
+public enum ContactField {
+    NAME,
+    EMAIL,
+    PHONE_NUMBER
+}
@@ -0,0 +1,3 @@
+package com.addressbook.app.validation;
+
+public record ContactRecord(String name, String email, String phoneNumber) {}    // raw, unvalidated contact fields, e.g. one row of an import
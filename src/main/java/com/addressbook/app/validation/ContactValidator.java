@@ -0,0 +1,183 @@
+package com.addressbook.app.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.metrics.AddressBookMetrics;
+
+public final class ContactValidator {   // hand-written scanners equivalent to the old String.matches checks, without compiling a Pattern or allocating
+
+    public static final String EMPTY_NAME = "Name must not be empty";
+    public static final String INVALID_EMAIL = "Invalid email format";
+    public static final String INVALID_PHONE_NUMBER = "Invalid phone number format";
+    public static final String NULL_FIELD = "Cannot add null values to address book";
+
+    private ContactValidator() {}
+
+    public static void validateName(String name) {
+        if (!isValidName(name)) {
+            throw new ValidationException(EMPTY_NAME);
+        }
+    }
+
+    public static void validateEmail(String email) {
+        if (!isValidEmail(email)) {
+            throw new ValidationException(INVALID_EMAIL);
+        }
+    }
+
+    public static void validatePhoneNumber(String phoneNumber) {
+        if (!isValidPhoneNumber(phoneNumber)) {
+            throw new ValidationException(INVALID_PHONE_NUMBER);
+        }
+    }
+
+    public static void timed(Runnable validation) {    // runs one validation and records its time and outcome in AddressBookMetrics.VALIDATION
+        long start = System.nanoTime();
+        boolean valid = false;
+        try {
+            validation.run();
+            valid = true;
+        } finally {
+            AddressBookMetrics.VALIDATION.record(start, !valid);
+        }
+    }
+
+    public static String findProblem(String name, String email, String phoneNumber) {    // the first field's error message, or null when all three are valid; never throws
+        if (name == null || !isValidName(name)) {
+            return name == null ? NULL_FIELD : EMPTY_NAME;
+        }
+        if (email == null || !isValidEmail(email)) {
+            return email == null ? NULL_FIELD : INVALID_EMAIL;
+        }
+        if (phoneNumber == null || !isValidPhoneNumber(phoneNumber)) {
+            return phoneNumber == null ? NULL_FIELD : INVALID_PHONE_NUMBER;
+        }
+        return null;
+    }
+
+    public static boolean isValidName(String name) {     // same as !name.trim().isEmpty(): trim strips every char up to and including ' '
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isValidEmail(String email) {
+        // equivalent to ^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,6}$
+        int length = email.length();
+        int at = 0;
+        while (at < length && isLocalPartChar(email.charAt(at))) {
+            at++;
+        }
+        if (at == 0 || at == length || email.charAt(at) != '@') {
+            return false;
+        }
+        int lastDot = -1;
+        for (int i = at + 1; i < length; i++) {
+            char c = email.charAt(i);
+            if (!isDomainChar(c)) {
+                return false;
+            }
+            if (c == '.') {
+                lastDot = i;
+            }
+        }
+        // the top level domain has no dots, so it can only start after the last one, and the domain needs one char before it
+        int topLevelLength = length - lastDot - 1;
+        if (lastDot <= at + 1 || topLevelLength < 2 || topLevelLength > 6) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isValidPhoneNumber(String phoneNumber) {
+        // equivalent to ^[\+]?[(]?[0-9]{3}[)]?[-\s\.]?[0-9]{3}[-\s\.]?[0-9]{4,6}$
+        int length = phoneNumber.length();
+        int i = 0;
+        if (i < length && phoneNumber.charAt(i) == '+') {
+            i++;
+        }
+        if (i < length && phoneNumber.charAt(i) == '(') {
+            i++;
+        }
+        if (!hasDigits(phoneNumber, i, 3)) {
+            return false;
+        }
+        i += 3;
+        if (i < length && phoneNumber.charAt(i) == ')') {
+            i++;
+        }
+        if (i < length && isSeparator(phoneNumber.charAt(i))) {
+            i++;
+        }
+        if (!hasDigits(phoneNumber, i, 3)) {
+            return false;
+        }
+        i += 3;
+        if (i < length && isSeparator(phoneNumber.charAt(i))) {
+            i++;
+        }
+        int lastGroup = length - i;
+        return lastGroup >= 4 && lastGroup <= 6 && hasDigits(phoneNumber, i, lastGroup);
+    }
+
+    public static ValidationReport validateAll(List<ContactRecord> records) {  // bulk mode: checks every field of every record and reports all failures at once
+        List<ValidationFailure> failures = new ArrayList<>();
+        int invalidRecords = 0;
+        for (int index = 0; index < records.size(); index++) {
+            ContactRecord record = records.get(index);
+            int failuresBefore = failures.size();
+            if (record.name() == null || !isValidName(record.name())) {
+                failures.add(new ValidationFailure(index, ContactField.NAME, EMPTY_NAME));
+            }
+            if (record.email() == null || !isValidEmail(record.email())) {
+                failures.add(new ValidationFailure(index, ContactField.EMAIL, INVALID_EMAIL));
+            }
+            if (record.phoneNumber() == null || !isValidPhoneNumber(record.phoneNumber())) {
+                failures.add(new ValidationFailure(index, ContactField.PHONE_NUMBER, INVALID_PHONE_NUMBER));
+            }
+            if (failures.size() > failuresBefore) {
+                invalidRecords++;
+            }
+        }
+        return new ValidationReport(records.size(), failures, invalidRecords);
+    }
+
+    private static boolean hasDigits(String value, int start, int count) {
+        if (start + count > value.length()) {
+            return false;
+        }
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSeparator(char c) {   // [-\s\.], where \s is [ \t\n\x0B\f\r]
+        return c == '-' || c == '.' || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9') || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9') || c == '.' || c == '-';
+    }
+}
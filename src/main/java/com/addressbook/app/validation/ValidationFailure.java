@@ -0,0 +1,3 @@
+package com.addressbook.app.validation;
+
+public record ValidationFailure(int index, ContactField field, String message) {}  // index is the record's position in the validated batch
@@ -0,0 +1,33 @@
+package com.addressbook.app.validation;
+
+import java.util.Collections;
+import java.util.List;
+
+public class ValidationReport {
+
+    private final int recordCount;
+    private final List<ValidationFailure> failures;
+    private final int invalidRecordCount;
+
+    ValidationReport(int recordCount, List<ValidationFailure> failures, int invalidRecordCount) {
+        this.recordCount = recordCount;
+        this.failures = Collections.unmodifiableList(failures);
+        this.invalidRecordCount = invalidRecordCount;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public int getInvalidRecordCount() {
+        return invalidRecordCount;
+    }
+
+    public List<ValidationFailure> getFailures() {
+        return failures;
+    }
+
+    public boolean isValid() {
+        return failures.isEmpty();
+    }
+}
@@ -1,18 +1,27 @@
 package com.addressbook.app;
 
 import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.index.NameKey;
+import com.addressbook.app.metrics.Operation;
+import com.addressbook.app.store.ColumnarContactStore;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class AddressBookTest {
@@ -188,6 +197,20 @@ public class AddressBookTest {
         verify(SystemErrSpy, never()).println(); // test none of the calls resulted in errors
     }
 
+    @Test
+    @DisplayName("removeContact() should leave the remaining contacts editable and removable by ID")
+    void testRemoveContactKeepsOtherContactsReachable() {
+        addressBook.addContact(John);
+        addressBook.addContact(Steve);
+        addressBook.addContact(Joe);
+        addressBook.removeContact(John.getId());
+        addressBook.editContact(Joe.getId(), "Joseph", "jjoestar@email.com", "0987612345");
+        assertEquals("Joseph", addressBook.findContact(Joe.getId()).getName(), "contact was not edited");
+        addressBook.removeContact(Steve.getId());
+        assertEquals(1, addressBook.getContacts().size(), "contact was not removed");
+        assertEquals(Joe.getId(), addressBook.getContacts().get(0).getId());
+    }
+
     @Test
     @DisplayName("editContact() should change the name, email, and phone number of a contact")
     void testEditContactChangesContact() {
@@ -255,6 +278,22 @@ public class AddressBookTest {
         assertThrows(ValidationException.class, () -> addressBook.addContact(John2), "contact was added despite duplicate email and phone number");
     }
 
+    @Test
+    @DisplayName("addContact() should treat emails that differ only in letter case as duplicates")
+    void testAddContactRejectsDuplicateEmailIgnoringCase() {
+        addressBook.addContact(John);
+        Contact John2 = new Contact("John", "JSmith@Email.com", "0987654321");
+        assertThrows(ValidationException.class, () -> addressBook.addContact(John2), "contact was added despite duplicate email");
+    }
+
+    @Test
+    @DisplayName("addContact() should treat phone numbers with the same digits but different formatting as duplicates")
+    void testAddContactRejectsDuplicatePhoneNumberIgnoringFormatting() {
+        addressBook.addContact(new Contact("Jane", "jdoe@email.com", "(555) 123-4567"));
+        Contact Jane2 = new Contact("Jane", "jlow@email.com", "555.123.4567");
+        assertThrows(ValidationException.class, () -> addressBook.addContact(Jane2), "contact was added despite duplicate phone number");
+    }
+
     @Test
     @DisplayName("editContact() should reject changes that match an existing email in the address book.")
     void testEditContactRejectsDuplicateEmail() {
@@ -347,6 +386,51 @@ void testGetAllContactsReturnsInAlphabeticalOrder() {
         assertEquals("Name: Jane, Email: jsmith@email.com, Phone: 1234567890\n", addressBook.getAllContacts(), "edit was not updated");
     }
 
+    @Test
+    @DisplayName("searchContacts() should keep alphabetical order after a contact is renamed")
+    void testSearchContactsOrderFollowsEdits() {
+        addressBook.addContact(John);
+        addressBook.addContact(Joe);
+        addressBook.editContact(Joe.getId(), "Jonathan", "jjoestar@email.com", "0987612345");
+        addressBook.searchContacts("Jo");
+        List<String> printedLines = Arrays.asList(outputStream.toString().trim().split("\n"));
+        assertEquals(Arrays.asList(
+                "Name: John, Email: jsmith@email.com, Phone: 1234567890",
+                "Name: Jonathan, Email: jjoestar@email.com, Phone: 0987612345"), printedLines);
+    }
+
+    @Test
+    @DisplayName("getAllContacts() should not reorder the underlying contacts list")
+    void testGetAllContactsDoesNotReorderContacts() {
+        addressBook.addContact(Steve);
+        addressBook.addContact(John);
+        addressBook.getAllContacts();
+        assertEquals(ids(Steve, John), ids(addressBook.getContacts()));
+    }
+
+    @Test
+    @DisplayName("getContactsPage() should return contacts in alphabetical pages that resume after the cursor")
+    void testGetContactsPageResumesAfterCursor() {
+        addressBook.addContact(Steve);
+        addressBook.addContact(John);
+        addressBook.addContact(Joe);
+        ContactPage first = addressBook.getContactsPage(null, 2);
+        assertEquals(ids(Joe, John), ids(first.contacts()));
+        ContactPage second = addressBook.getContactsPage(first.nextCursor(), 2);
+        assertEquals(ids(Steve), ids(second.contacts()));
+        assertFalse(second.hasMore(), "last page should not have a cursor");
+    }
+
+    @Test
+    @DisplayName("writeAllContacts() should stream the same listing that getAllContacts() returns")
+    void testWriteAllContactsMatchesGetAllContacts() throws IOException {
+        addressBook.addContact(Steve);
+        addressBook.addContact(John);
+        StringWriter writer = new StringWriter();
+        addressBook.writeAllContacts(writer);
+        assertEquals(addressBook.getAllContacts(), writer.toString());
+    }
+
     @Test
     void testDeleteAll() {
         addressBook.addContact(John);
@@ -379,4 +463,240 @@ void testGetAllContactsReturnsInAlphabeticalOrder() {
         System.setOut(System.out);
     }
 
+
+    @Test
+    @DisplayName("findContactsByPhoneNumberPrefix() should match on digits whatever the formatting")
+    void testFindContactsByPhoneNumberPrefix() {
+        AddressBook addressBook = new AddressBook();
+        Contact london = new Contact("London", "london@email.com", "+442 079 460958");
+        Contact manchester = new Contact("Manchester", "manchester@email.com", "+441 614 960000");
+        Contact localLondon = new Contact("Local", "local@email.com", "020 794 60000");
+        addressBook.addContact(london);
+        addressBook.addContact(manchester);
+        addressBook.addContact(localLondon);
+        assertEquals(List.of(london), addressBook.findContactsByPhoneNumberPrefix("+44 20"));
+        assertEquals(List.of(manchester, london), addressBook.findContactsByPhoneNumberPrefix("44"));
+        assertEquals(List.of(localLondon), addressBook.findContactsByPhoneNumberPrefix("0207"));
+        addressBook.editContact(london.getId(), "London", "london@email.com", "+441 134 960000");
+        assertTrue(addressBook.findContactsByPhoneNumberPrefix("4420").isEmpty());
+        addressBook.removeContact(manchester.getId());
+        assertEquals(List.of(london), addressBook.findContactsByPhoneNumberPrefix("44"));
+    }
+
+    @Test
+    @DisplayName("findContactsByEmailPrefix() should match local part prefixes and whole domains")
+    void testFindContactsByEmailPrefix() {
+        AddressBook addressBook = new AddressBook();
+        Contact john = new Contact("John", "JSmith@OurCorp.com", "1234567890");
+        Contact jane = new Contact("Jane", "jane@mail.ourcorp.com", "1234567891");
+        Contact steve = new Contact("Steve", "steve@notourcorp.com", "1234567892");
+        addressBook.addContact(john);
+        addressBook.addContact(jane);
+        addressBook.addContact(steve);
+        assertEquals(List.of(jane, john), addressBook.findContactsByEmailPrefix("j"));
+        assertEquals(List.of(john, jane), addressBook.findContactsByEmailPrefix("@ourcorp.com"));
+        assertEquals(List.of(jane), addressBook.findContactsByEmailPrefix("@MAIL.ourcorp.com"));
+        addressBook.editContact(john.getId(), "John", "john@notourcorp.com", "1234567890");
+        assertEquals(List.of(jane), addressBook.findContactsByEmailPrefix("@ourcorp.com"));
+        assertEquals(List.of(john), addressBook.findContactsByEmailPrefix("john@"));
+    }
+
+    @Test
+    @DisplayName("searchContactsByEmail() and searchContactsByPhoneNumber() should print matches in name order")
+    void testPrefixSearchesPrintInNameOrder() {
+        Contact zed = new Contact("Zed", "a.zed@ourcorp.com", "4420000001");
+        Contact amy = new Contact("Amy", "b.amy@ourcorp.com", "4420000002");
+        addressBook.addContact(zed);
+        addressBook.addContact(amy);
+        addressBook.searchContactsByEmail("@ourcorp.com");
+        addressBook.searchContactsByPhoneNumber("4420");
+        var inOrder = inOrder(SystemOutSpy);
+        for (int i = 0; i < 2; i++) {
+            inOrder.verify(SystemOutSpy).println("Name: Amy, Email: b.amy@ourcorp.com, Phone: 4420000002");
+            inOrder.verify(SystemOutSpy).println("Name: Zed, Email: a.zed@ourcorp.com, Phone: 4420000001");
+        }
+    }
+
+    @Test
+    @DisplayName("findContactsBySimilarName() should rank mistyped matches by distance and then by name")
+    void testFindContactsBySimilarName() {
+        AddressBook addressBook = new AddressBook();
+        Contact johnSmith = new Contact("John Smith", "jsmith@email.com", "1234567890");
+        Contact joanSmith = new Contact("Joan Smith", "joan@email.com", "1234567891");
+        Contact johnSmyth = new Contact("John Smyth", "jsmyth@email.com", "1234567892");
+        addressBook.addContact(johnSmyth);
+        addressBook.addContact(joanSmith);
+        addressBook.addContact(johnSmith);
+        assertEquals(List.of(joanSmith, johnSmith, johnSmyth), addressBook.findContactsBySimilarName("Jonh Smith"));    // a tie at two edits falls back to name order
+        addressBook.editContact(johnSmith.getId(), "Jack Smith", "jsmith@email.com", "1234567890");
+        assertEquals(List.of(joanSmith, johnSmyth), addressBook.findContactsBySimilarName("Jonh Smith"));
+    }
+
+    @Test
+    @DisplayName("findContactsByName() should return the same window as filterContactsByName for short and long queries")
+    void testFindContactsByNameMatchesFullSearch() {
+        AddressBook addressBook = new AddressBook();
+        String[] names = {"Anna", "Bob", "Hannah", "Dan", "Joanna", "Zed", "Alan", "Susanna", "Nat", "Brianna"};
+        for (int i = 0; i < 200; i++) {
+            addressBook.addContact(new Contact(names[i % names.length] + " " + (i * 7919 % 200), "user" + i + "@email.com", String.format("555%07d", i)));
+        }
+        for (String query : new String[] {"a", "an", "anna", "zzz"}) {
+            List<Contact> all = addressBook.filterContactsByName(query);
+            for (int offset = 0; offset < all.size() + 10; offset += 17) {
+                SearchResults results = addressBook.findContactsByName(query, offset, 20);
+                assertEquals(all.subList(Math.min(offset, all.size()), Math.min(offset + 20, all.size())), results.contacts(), query + " at " + offset);
+                assertEquals(offset + 20 < all.size(), results.hasMore(), query + " at " + offset);
+                if (results.exactTotal()) {
+                    assertEquals(all.size(), results.totalEstimate());
+                }
+            }
+            assertEquals(all.subList(Math.min(1, all.size()), all.size()), addressBook.findContactsByName(query, 1, Integer.MAX_VALUE).contacts(), query);   // an unbounded window must not overflow or preallocate
+        }
+    }
+
+    @Test
+    @DisplayName("Listings and searches should sort names by locale collation, or by code unit without a locale")
+    void testCollatedNameOrder() {
+        AddressBook collated = new AddressBook(0, Locale.ROOT);
+        AddressBook byCodeUnit = new AddressBook(0, null);
+        String[] names = {"bob Nash", "Alice Nash", "\u00c9mile Nash", "Zoe Nash", "adam Nash"};
+        for (int i = 0; i < names.length; i++) {
+            Contact contact = new Contact(names[i], "nash" + i + "@email.com", String.format("555%07d", i));
+            collated.addContact(contact);
+            byCodeUnit.addContact(Contact.restore(contact.getId(), contact.getName(), contact.getEmail(), contact.getPhoneNumber()));
+        }
+
+        List<String> expected = List.of("adam Nash", "Alice Nash", "bob Nash", "\u00c9mile Nash", "Zoe Nash");
+        assertEquals(expected, collated.filterContactsByName("nash").stream().map(Contact::getName).toList());
+        assertEquals(expected, collated.filterContactsByName("n").stream().map(Contact::getName).toList());
+        assertEquals(expected.subList(1, 3), collated.findContactsByName("nash", 1, 2).contacts().stream().map(Contact::getName).toList());
+        assertEquals(List.of("Alice Nash", "Zoe Nash", "adam Nash", "bob Nash", "\u00c9mile Nash"),
+                byCodeUnit.filterContactsByName("nash").stream().map(Contact::getName).toList());
+
+        ContactPage first = collated.getContactsPage(null, 2);
+        NameKey rebuilt = new NameKey(first.nextCursor().name(), first.nextCursor().id());
+        assertEquals("bob Nash", collated.getContactsPage(rebuilt, 1).contacts().get(0).getName());    // a cursor without its collation key still resumes in place
+        assertTrue(collated.getAllContacts().indexOf("adam Nash") < collated.getAllContacts().indexOf("Alice Nash"));
+    }
+
+    @Test
+    @DisplayName("A batch should apply every item in order when all of them pass")
+    void testApplyBatch() {
+        addressBook.addContact(John);
+        addressBook.addContact(Steve);
+        long version = addressBook.getVersion();
+
+        BatchResult result = addressBook.applyBatch(List.of(
+                Mutation.remove(Steve.getId()),
+                Mutation.add(Joe),
+                Mutation.edit(Joe.getId(), "Joe", "sjones@email.net", "0987612345"),   // takes the email freed by the remove above
+                Mutation.edit(John.getId(), "John Smith", "jsmith@email.com", "1234567890")));
+
+        assertTrue(result.applied());
+        assertEquals(List.of(MutationOutcome.SUCCESS, MutationOutcome.SUCCESS, MutationOutcome.SUCCESS, MutationOutcome.SUCCESS), result.outcomes());
+        assertEquals(0, result.failureCount());
+        assertEquals(2, addressBook.getContacts().size());
+        assertEquals(null, addressBook.findContact(Steve.getId()));
+        assertEquals("sjones@email.net", addressBook.findContact(Joe.getId()).getEmail());
+        assertEquals("John Smith", addressBook.findContact(John.getId()).getName());
+        assertEquals(ids(Joe), ids(addressBook.findContactsByEmailPrefix("sjones")));
+        assertEquals(version + 4, addressBook.getVersion());
+    }
+
+    @Test
+    @DisplayName("A batch with a failing item should apply nothing and report why each item failed")
+    void testApplyBatchAllOrNothing() {
+        addressBook.addContact(John);
+        Contact sameEmail = new Contact("Jane", "JSmith@email.com", "5550001111");
+        Contact samePhone = new Contact("Jim", "jim@email.com", "0987654321");
+        long version = addressBook.getVersion();
+
+        BatchResult result = addressBook.applyBatch(List.of(
+                Mutation.add(Steve),
+                Mutation.add(sameEmail),
+                Mutation.add(samePhone),     // collides with Steve, added earlier in the same batch
+                Mutation.add(John),
+                Mutation.edit(John.getId(), "John", "not an email", "1234567890"),
+                Mutation.edit(John.getId(), null, "jsmith@email.com", "1234567890"),
+                Mutation.remove(Joe.getId()),
+                Mutation.add(null)));
+
+        assertFalse(result.applied());
+        assertEquals(List.of(MutationOutcome.ABORTED, MutationOutcome.DUPLICATE_EMAIL, MutationOutcome.DUPLICATE_PHONE,
+                MutationOutcome.ALREADY_EXISTS, MutationOutcome.INVALID_FIELD, MutationOutcome.INVALID_FIELD,
+                MutationOutcome.NOT_FOUND, MutationOutcome.INVALID_FIELD), result.outcomes());
+        assertEquals(7, result.failureCount());
+        assertEquals(ids(John), ids(addressBook.getContacts()));
+        assertEquals("John", addressBook.findContact(John.getId()).getName());
+        assertEquals(version, addressBook.getVersion());
+        assertEquals(1, addressBook.getMetrics().get(Operation.BATCH).getFailures());
+        assertTrue(addressBook.applyBatch(List.of(Mutation.add(Steve))).applied());    // the aborted batch left no claims behind
+    }
+
+    @Test
+    @DisplayName("The try methods should report each failure as an outcome without printing or throwing")
+    void testTryMutationsReturnOutcomes() {
+        assertEquals(MutationOutcome.SUCCESS, addressBook.tryAddContact(John));
+        assertEquals(MutationOutcome.SUCCESS, addressBook.tryAddContact(Steve));
+        assertEquals(MutationOutcome.ALREADY_EXISTS, addressBook.tryAddContact(John));
+        assertEquals(MutationOutcome.DUPLICATE_EMAIL, addressBook.tryAddContact(new Contact("Jane", "JSMITH@email.com", "5550001111")));
+        assertEquals(MutationOutcome.DUPLICATE_PHONE, addressBook.tryAddContact(new Contact("Jane", "jane@email.com", "(098) 765-4321")));
+        assertEquals(MutationOutcome.INVALID_FIELD, addressBook.tryAddContact(null));
+
+        assertEquals(MutationOutcome.NOT_FOUND, addressBook.tryEditContact(Joe.getId(), "Joe", "jjoestar@email.com", "0987612345"));
+        assertEquals(MutationOutcome.INVALID_FIELD, addressBook.tryEditContact(John.getId(), "Jane", "not an email", "1234567890"));
+        assertEquals(MutationOutcome.INVALID_FIELD, addressBook.tryEditContact(John.getId(), "Jane", "jsmith@email.com", null));
+        assertEquals("John", addressBook.findContact(John.getId()).getName());       // a rejected edit changes no field, not even the valid ones before the bad one
+        assertEquals(MutationOutcome.DUPLICATE_EMAIL, addressBook.tryEditContact(John.getId(), "John", "sjones@email.net", "1234567890"));
+        assertEquals(MutationOutcome.SUCCESS, addressBook.tryEditContact(John.getId(), "Jane", "jane@email.com", "1234567890"));
+        assertEquals("Jane", addressBook.findContact(John.getId()).getName());
+
+        assertEquals(MutationOutcome.SUCCESS, addressBook.tryRemoveContact(Steve.getId()));
+        assertEquals(MutationOutcome.NOT_FOUND, addressBook.tryRemoveContact(Steve.getId()));
+        assertEquals(ids(John), ids(addressBook.getContacts()));
+        assertEquals("", outputStream.toString());
+        assertEquals(4, addressBook.getMetrics().get(Operation.ADD).getFailures());
+
+        ValidationException e = assertThrows(ValidationException.class, () -> addressBook.addContact(new Contact("Jane", "jane@email.com", "5550001111")));
+        assertEquals(0, e.getStackTrace().length);
+    }
+
+    @Test
+    @DisplayName("A book on the columnar store should add, edit, remove and search like one on the default store")
+    void testColumnarStoreBacksBook() {
+        AddressBook columnar = new AddressBook(0, Locale.ROOT, new ColumnarContactStore());
+        columnar.addContact(John);
+        columnar.addContact(Steve);
+        columnar.addContact(Joe);
+        columnar.removeContact(John.getId());      // Joe moves into John's row
+        assertEquals(ids(Joe, Steve), ids(columnar.getContacts()));
+        columnar.editContact(Joe.getId(), "Joseph", "JSmith@email.com", "0987612345");     // takes the email John's removal freed
+        assertEquals("JSmith@email.com", columnar.findContact(Joe.getId()).getEmail());
+        assertEquals(MutationOutcome.DUPLICATE_PHONE, columnar.tryAddContact(new Contact("Jim", "jim@email.com", "(098) 765-4321")));
+        assertEquals(MutationOutcome.DUPLICATE_EMAIL, columnar.tryEditContact(Steve.getId(), "Steve", "jsmith@EMAIL.com", "0987654321"));
+        assertEquals(MutationOutcome.SUCCESS, columnar.tryAddContact(new Contact("John", "jsmith@other.com", "1234567890")));
+        assertEquals(ids(Joe), ids(columnar.findContactsByEmailPrefix("jsmith@e")));
+        assertEquals(List.of("John", "Joseph", "Steve"), columnar.getContactsPage(null, 10).contacts().stream().map(Contact::getName).toList());
+        assertFalse(columnar.applyBatch(List.of(Mutation.remove(Steve.getId()), Mutation.add(null))).applied());
+        assertEquals(3, columnar.getContacts().size());
+        columnar.removeContact(Steve.getId());
+        assertEquals(null, columnar.findContact(Steve.getId()));
+        assertEquals(MutationOutcome.SUCCESS, columnar.tryAddContact(new Contact("Steve", "sjones@email.net", "0987654321")));    // the removal freed Steve's keys
+    }
+
+    @Test
+    @DisplayName("A book should only be built on an empty store, since it indexes every contact it holds")
+    void testBookRejectsFilledStore() {
+        ColumnarContactStore store = new ColumnarContactStore();
+        store.add(John);
+        assertThrows(IllegalArgumentException.class, () -> new AddressBook(0, Locale.ROOT, store));
+    }
+
+    private static List<Integer> ids(Contact... contacts) {
+        return ids(Arrays.asList(contacts));
+    }
+
+    private static List<Integer> ids(Collection<Contact> contacts) {     // books on other stores hand back their own Contact objects, so compare by id
+        return contacts.stream().map(Contact::getId).toList();
+    }
 }
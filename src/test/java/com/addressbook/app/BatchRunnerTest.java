@@ -0,0 +1,84 @@
+package com.addressbook.app;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchRunnerTest {
+
+    @Test
+    @DisplayName("run() should execute every command, report failures by line and print a summary")
+    void testRunScript() throws IOException {
+        AddressBook addressBook = new AddressBook();
+        StringWriter out = new StringWriter();
+        String script = String.join("\n",
+                "# load two contacts",
+                "add|John Smith|jsmith@email.com|1234567890",
+                "add|Steve Jones|sjones@email.net|0987654321",
+                "add|Copy|JSmith@email.com|5555555555",
+                "",
+                "search|smith",
+                "remove|999999",
+                "frobnicate",
+                "add|Too|few");
+
+        BatchSummary summary = new BatchRunner(addressBook, out).run(new BufferedReader(new StringReader(script)));
+
+        assertEquals(7, summary.operations());
+        assertEquals(4, summary.failures());
+        assertEquals(2, addressBook.getContacts().size());
+        String output = out.toString();
+        assertTrue(output.contains("Line 4: Email already exists"), output);
+        assertTrue(output.contains("Name: John Smith, Email: jsmith@email.com, Phone: 1234567890\n"), output);
+        assertTrue(output.contains("Line 7: Contact 999999 not found"), output);
+        assertTrue(output.contains("Line 8: Unknown command: frobnicate"), output);
+        assertTrue(output.contains("Line 9: add expects 3 arguments but got 2"), output);
+        assertTrue(output.contains("Executed 7 operations, 4 failed"), output);
+    }
+
+    @Test
+    @DisplayName("run() should edit and remove contacts by id and list them in name order")
+    void testEditRemoveAndList() throws IOException {
+        AddressBook addressBook = new AddressBook();
+        Contact zed = new Contact("Zed", "zed@email.com", "1112223333");
+        Contact amy = new Contact("Amy", "amy@email.com", "4445556666");
+        addressBook.addContact(zed);
+        addressBook.addContact(amy);
+        StringWriter out = new StringWriter();
+        String script = "edit|" + zed.getId() + "|Bob|bob@email.com|1112223333\nremove|" + amy.getId() + "\nlist\n";
+
+        BatchSummary summary = new BatchRunner(addressBook, out).run(new BufferedReader(new StringReader(script)));
+
+        assertEquals(0, summary.failures());
+        assertTrue(out.toString().startsWith("ID: " + zed.getId() + "Name: Bob, Email: bob@email.com, Phone: 1112223333\nExecuted 3"), out.toString());
+    }
+
+    @Test
+    @DisplayName("run() should report deleteall through its writer rather than the console")
+    void testDeleteAllWritesToOut() throws IOException {
+        AddressBook addressBook = new AddressBook();
+        addressBook.addContact(new Contact("Zed", "zed@email.com", "1112223333"));
+        StringWriter out = new StringWriter();
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        PrintStream systemOut = System.out;
+        System.setOut(new PrintStream(console));
+        try {
+            new BatchRunner(addressBook, out).run(new BufferedReader(new StringReader("deleteall\ndeleteall\n")));
+        } finally {
+            System.setOut(systemOut);
+        }
+
+        assertTrue(addressBook.getContacts().isEmpty());
+        assertEquals("", console.toString());
+        assertTrue(out.toString().startsWith("All contacts have been deleted.\nExecuted 2 operations, 0 failed"), out.toString());
+    }
+}
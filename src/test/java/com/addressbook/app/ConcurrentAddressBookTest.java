@@ -0,0 +1,190 @@
+package com.addressbook.app;
+
+import com.addressbook.app.exceptions.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentAddressBookTest {
+    private static final int THREADS = 8;
+
+    @Test
+    @DisplayName("addContact() should accept exactly one contact per email and phone number when threads race")
+    void testConcurrentAddsKeepEmailsAndPhoneNumbersUnique() throws Exception {
+        ConcurrentAddressBook addressBook = new ConcurrentAddressBook();
+        int contactsPerThread = 2_000;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < contactsPerThread; i++) {   // every thread tries to add the same emails and phone numbers
+                    try {
+                        addressBook.addContact(new Contact("Name " + i, "user" + i + "@email.com", String.format("555%07d", i)));
+                        accepted.incrementAndGet();
+                    } catch (ValidationException e) {
+                        // lost the race for this email or phone number
+                    }
+                    if (i % 50 == 0) {
+                        addressBook.filterContactsByName("Name 1");   // lock-free reads running alongside the writers
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(contactsPerThread, accepted.get(), "duplicate contacts were accepted");
+        assertEquals(contactsPerThread, addressBook.size());
+        Set<String> emails = new HashSet<>();
+        for (Contact contact : addressBook.getContacts()) {
+            assertTrue(emails.add(contact.getEmail()), "duplicate email " + contact.getEmail());
+        }
+    }
+
+    @Test
+    @DisplayName("tryAddContact(), tryEditContact() and tryRemoveContact() should return outcomes instead of throwing or printing")
+    void testMutationOutcomes() {
+        ConcurrentAddressBook addressBook = new ConcurrentAddressBook();
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        Contact steve = new Contact("Steve", "sjones@email.net", "0987654321");
+        assertEquals(MutationOutcome.SUCCESS, addressBook.tryAddContact(john));
+        assertEquals(MutationOutcome.ALREADY_EXISTS, addressBook.tryAddContact(john));
+        assertEquals(MutationOutcome.DUPLICATE_PHONE, addressBook.tryAddContact(new Contact("Copy", "copy@email.com", "123-456-7890")));
+        assertEquals(MutationOutcome.SUCCESS, addressBook.tryAddContact(steve));
+        assertEquals(MutationOutcome.DUPLICATE_EMAIL, addressBook.tryEditContact(steve.getId(), "Steve", "JSMITH@email.com", "0987654321"));
+        assertEquals(MutationOutcome.INVALID_FIELD, addressBook.tryEditContact(steve.getId(), "", "sjones@email.net", "0987654321"));
+        assertEquals(MutationOutcome.SUCCESS, addressBook.tryRemoveContact(john.getId()));
+        assertEquals(MutationOutcome.NOT_FOUND, addressBook.tryRemoveContact(john.getId()));
+        assertEquals(MutationOutcome.NOT_FOUND, addressBook.tryEditContact(john.getId(), "John", "jsmith@email.com", "1234567890"));
+        assertEquals(MutationOutcome.SUCCESS, addressBook.tryAddContact(new Contact("Copy", "copy@email.com", "123-456-7890")));     // the phone number was released
+        assertEquals(2, addressBook.size());
+    }
+
+    @Test
+    @DisplayName("findContactsByName() should return the same window as filterContactsByName and estimate the total once it stops early")
+    void testFindContactsByNameWindow() {
+        ConcurrentAddressBook addressBook = new ConcurrentAddressBook();
+        for (int i = 0; i < 100; i++) {
+            addressBook.addContact(new Contact("Name " + i, "user" + i + "@email.com", String.format("555%07d", i)));
+        }
+        List<Contact> all = addressBook.filterContactsByName("name 1");
+        SearchResults first = addressBook.findContactsByName("name 1", 0, 5);
+        assertEquals(all.subList(0, 5), first.contacts());
+        assertFalse(first.exactTotal());
+        assertTrue(first.hasMore());
+        SearchResults rest = addressBook.findContactsByName("name 1", 5, Integer.MAX_VALUE);
+        assertEquals(all.subList(5, all.size()), rest.contacts());
+        assertTrue(rest.exactTotal());
+        assertEquals(all.size(), rest.totalEstimate());
+    }
+
+    @Test
+    @DisplayName("editContact() should reject an email that another contact already owns")
+    void testEditContactRejectsDuplicateEmail() {
+        ConcurrentAddressBook addressBook = new ConcurrentAddressBook();
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        Contact steve = new Contact("Steve", "sjones@email.net", "0987654321");
+        addressBook.addContact(john);
+        addressBook.addContact(steve);
+        assertThrows(ValidationException.class, () -> addressBook.editContact(john.getId(), "John", "SJones@email.net", "1234567890"));
+        addressBook.editContact(john.getId(), "Jane", "jsmith@email.com", "5554443333");
+        addressBook.removeContact(steve.getId());
+        addressBook.addContact(new Contact("Steve", "sjones@email.net", "1234567890"));
+        assertEquals("Jane", addressBook.getContacts().get(0).getName());
+        assertEquals(2, addressBook.size());
+    }
+
+    @Test
+    @DisplayName("Readers should never see a half edited contact, or lose it from listings, while it is being edited")
+    void testEditsArePublishedWhole() throws Exception {
+        ConcurrentAddressBook addressBook = new ConcurrentAddressBook();
+        Contact john = new Contact("John", "john@email.com", "1234567890");
+        addressBook.addContact(new Contact("Steve", "sjones@email.net", "0987654321"));
+        addressBook.addContact(john);
+        int id = john.getId();
+        AtomicInteger torn = new AtomicInteger();
+        AtomicInteger missing = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS - 1; t++) {
+            futures.add(executor.submit(() -> {
+                while (done.getCount() > 0) {
+                    Contact contact = addressBook.findContact(id);
+                    if (contact.getEmail().startsWith("john@") != contact.getPhoneNumber().startsWith("123")) {
+                        torn.incrementAndGet();
+                    }
+                    if (addressBook.getContacts().size() != 2 || addressBook.filterContactsByName("jo").size() != 1) {
+                        missing.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int i = 0; i < 20_000; i++) {    // alternate between two consistent versions of the same contact
+            if (i % 2 == 0) {
+                addressBook.editContact(id, "John", "john.smith@email.com", "5554443333");
+            } else {
+                addressBook.editContact(id, "John", "john@email.com", "1234567890");
+            }
+        }
+        done.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        addressBook.editContact(id, "Jane", "jane@email.com", "5554443333");
+
+        assertEquals(0, torn.get(), "a reader saw a mix of old and new fields");
+        assertEquals(0, missing.get(), "a listing missed or repeated the contact being edited");
+        assertEquals(List.of("Jane", "Steve"), addressBook.getContacts().stream().map(Contact::getName).toList());
+        assertEquals("John", john.getName());    // edits publish a copy, the contact that was added is left alone
+    }
+
+    @Test
+    @DisplayName("IdAllocator should never hand out the same id twice across threads")
+    void testIdAllocatorHandsOutUniqueIds() throws Exception {
+        IdAllocator allocator = new IdAllocator();
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        int idsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < idsPerThread; i++) {
+                    assertTrue(ids.add(allocator.nextId()), "id handed out twice");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(THREADS * idsPerThread, ids.size());
+        allocator.advancePast(allocator.getHighWaterMark() + 10);
+        assertTrue(ids.add(allocator.nextId()), "id handed out again after advancePast");
+    }
+}
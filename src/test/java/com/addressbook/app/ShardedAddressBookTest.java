@@ -0,0 +1,130 @@
+package com.addressbook.app;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.addressbook.app.exceptions.ValidationException;
+import com.addressbook.app.index.NameKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedAddressBookTest {
+
+    private static ShardedAddressBook bookWithContacts(int count) {
+        ShardedAddressBook addressBook = new ShardedAddressBook(4);
+        for (int i = 0; i < count; i++) {
+            addressBook.addContact(new Contact("Person " + (i * 37 % count), "person" + i + "@email.com", String.format("555%07d", i)));
+        }
+        return addressBook;
+    }
+
+    @Test
+    @DisplayName("Listings and searches should merge every shard's contacts in name order")
+    void testMergedOrder() {
+        ShardedAddressBook addressBook = bookWithContacts(200);
+
+        List<Contact> contacts = addressBook.getContacts();
+        List<Contact> sorted = new ArrayList<>(contacts);
+        sorted.sort(Comparator.comparing(Contact::getName).thenComparingInt(Contact::getId));
+
+        assertEquals(200, addressBook.size());
+        assertEquals(sorted, contacts);
+        List<Contact> matches = addressBook.filterContactsByName("person 1");
+        assertEquals(111, matches.size());     // 1, 10-19, 100-199
+        assertEquals(matches.subList(20, 30), addressBook.findContactsByName("person 1", 20, 10).contacts());
+        assertEquals(111, addressBook.findContactsByName("person 1", 20, 10).totalEstimate());
+        List<Contact> shortMatches = addressBook.filterContactsByName("pe");
+        assertEquals(shortMatches.subList(1, 200), addressBook.findContactsByName("pe", 1, Integer.MAX_VALUE).contacts());
+    }
+
+    @Test
+    @DisplayName("getContactsPage() should walk the whole book once across shards")
+    void testPaging() {
+        ShardedAddressBook addressBook = bookWithContacts(95);
+
+        List<Contact> walked = new ArrayList<>();
+        NameKey cursor = null;
+        do {
+            ContactPage page = addressBook.getContactsPage(cursor, 10);
+            walked.addAll(page.contacts());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(addressBook.getContacts(), walked);
+    }
+
+    @Test
+    @DisplayName("Emails and phone numbers should be unique across shards, and freed by edits and removals")
+    void testCrossShardUniqueness() {
+        ShardedAddressBook addressBook = new ShardedAddressBook(8);
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        addressBook.addContact(john);
+
+        for (int i = 0; i < 20; i++) {  // new ids land on different shards, all must be rejected
+            assertThrows(ValidationException.class, () -> addressBook.addContact(new Contact("Copy", "JSmith@email.com", "0987654321")));
+        }
+        addressBook.editContact(john.getId(), "John", "john@email.com", "1234567890");
+        addressBook.addContact(new Contact("New", "jsmith@email.com", "0987654321"));
+        assertThrows(ValidationException.class, () -> addressBook.addContact(new Contact("Copy", "x@email.com", "123-456-7890")));
+        addressBook.removeContact(john.getId());
+        addressBook.addContact(new Contact("Newer", "john@email.com", "1234567890"));
+
+        assertNull(addressBook.findContact(john.getId()));
+        assertEquals(2, addressBook.size());
+        addressBook.clear();
+        addressBook.addContact(new Contact("After Clear", "john@email.com", "1234567890"));
+        assertEquals(1, addressBook.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent adds of the same keys should accept exactly one contact per key")
+    void testConcurrentAdds() throws Exception {
+        ShardedAddressBook addressBook = new ShardedAddressBook(4);
+        int threads = 4;
+        int contactsPerThread = 500;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < contactsPerThread; i++) {
+                    try {
+                        addressBook.addContact(new Contact("Name " + i, "user" + i + "@email.com", String.format("555%07d", i)));
+                        accepted.incrementAndGet();
+                    } catch (ValidationException e) {
+                        // another thread owns this email or phone number
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(contactsPerThread, accepted.get());
+        Set<String> emails = new HashSet<>();
+        for (Contact contact : addressBook.getContacts()) {
+            assertTrue(emails.add(contact.getEmail()), "duplicate email " + contact.getEmail());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.addressbook.app;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.addressbook.app.exceptions.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class VersionedAddressBookTest {
+
+    @Test
+    @DisplayName("A snapshot should keep showing the book as it was when taken")
+    void testSnapshotIsolation() {
+        VersionedAddressBook addressBook = new VersionedAddressBook();
+        Contact john = new Contact("John Smith", "jsmith@email.com", "1234567890");
+        addressBook.addContact(john);
+        AddressBookSnapshot before = addressBook.snapshot();
+
+        addressBook.editContact(john.getId(), "Johnny Smith", "johnny@email.com", "1234567890");
+        addressBook.addContact(new Contact("Steve Jones", "sjones@email.net", "0987654321"));
+        addressBook.clear();
+
+        assertEquals(1, before.size());
+        assertEquals("John Smith", before.findContact(john.getId()).getName());
+        assertEquals(1, before.filterContactsByName("smith").size());
+        assertEquals(0, addressBook.size());
+        assertEquals(before.getVersion() + 3, addressBook.snapshot().getVersion());
+    }
+
+    @Test
+    @DisplayName("Contacts read from the book should be read-only copies")
+    void testContactsAreReadOnly() {
+        VersionedAddressBook addressBook = new VersionedAddressBook();
+        Contact john = new Contact("John Smith", "jsmith@email.com", "1234567890");
+        addressBook.addContact(john);
+        john.setName("Changed Outside");
+
+        Contact stored = addressBook.findContact(john.getId());
+        assertEquals("John Smith", stored.getName());
+        assertThrows(UnsupportedOperationException.class, () -> stored.setName("Changed"));
+        assertThrows(UnsupportedOperationException.class, () -> addressBook.getContacts().clear());
+    }
+
+    @Test
+    @DisplayName("Duplicate emails and phone numbers should be rejected, and freed keys reusable")
+    void testUniqueKeys() {
+        VersionedAddressBook addressBook = new VersionedAddressBook();
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        Contact steve = new Contact("Steve", "sjones@email.net", "0987654321");
+        addressBook.addContact(john);
+        addressBook.addContact(steve);
+
+        assertThrows(ValidationException.class, () -> addressBook.addContact(new Contact("Copy", "JSmith@email.com", "5555555555")));
+        assertThrows(ValidationException.class, () -> addressBook.editContact(john.getId(), "John", "jsmith@email.com", "098-765-4321"));
+        addressBook.editContact(john.getId(), "John", "john@email.com", "1234567890");
+        addressBook.addContact(new Contact("New", "jsmith@email.com", "5555555555"));
+        addressBook.removeContact(steve.getId());
+
+        assertNull(addressBook.findContact(steve.getId()));
+        assertEquals(List.of("John", "New"), addressBook.getContacts().stream().map(Contact::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Readers scanning snapshots should never see a half-applied edit")
+    void testReadersSeeWholeEdits() throws InterruptedException {
+        VersionedAddressBook addressBook = new VersionedAddressBook();
+        for (int i = 0; i < 200; i++) {
+            addressBook.addContact(new Contact("Name " + i, "user" + i + "@email.com", String.format("555%07d", i)));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                AddressBookSnapshot snapshot = addressBook.snapshot();
+                long renamed = snapshot.getContacts().stream().filter(contact -> contact.getName().startsWith("Renamed")).count();
+                long movedEmails = snapshot.getContacts().stream().filter(contact -> contact.getEmail().startsWith("renamed")).count();
+                if (renamed != movedEmails || snapshot.size() != 200) {
+                    failure.set("version " + snapshot.getVersion() + " had " + renamed + " names and " + movedEmails + " emails changed");
+                }
+            }
+        });
+        reader.start();
+        List<Contact> contacts = addressBook.getContacts();
+        for (int i = 0; i < contacts.size(); i++) {
+            Contact contact = contacts.get(i);
+            addressBook.editContact(contact.getId(), "Renamed " + i, "renamed" + i + "@email.com", contact.getPhoneNumber());
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get(), failure.get());
+    }
+}
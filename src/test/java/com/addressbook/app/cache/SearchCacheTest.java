@@ -0,0 +1,87 @@
+package com.addressbook.app.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import com.addressbook.app.AddressBook;
+import com.addressbook.app.Contact;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SearchCacheTest {
+
+    @Test
+    @DisplayName("get() should miss on entries from an older version and evict the least recently used")
+    void testVersionsAndEviction() {
+        SearchCache<String, String> cache = new SearchCache<>(2);
+        cache.put("a", 1, "A");
+        cache.put("b", 1, "B");
+        assertEquals("A", cache.get("a", 1));      // "b" is now the least recently used
+        cache.put("c", 1, "C");
+
+        assertNull(cache.get("b", 1));
+        assertNull(cache.get("a", 2));
+        assertEquals("C", cache.get("c", 1));
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getStaleMisses());
+        assertEquals(0.5, cache.getHitRate());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("put() should evict the least recently used entries to stay within the total weight")
+    void testWeightBound() {
+        SearchCache<String, String> cache = new SearchCache<>(10, 5, String::length);
+        cache.put("a", 1, "aa");
+        cache.put("b", 1, "bb");
+        cache.put("c", 1, "ccc");       // 7 > 5, so "a" goes
+        cache.put("huge", 1, "xxxxxx");  // heavier than the whole cache, never kept
+
+        assertNull(cache.get("a", 1));
+        assertNull(cache.get("huge", 1));
+        assertEquals("bb", cache.get("b", 1));
+        assertEquals(5, cache.getWeight());
+    }
+
+    @Test
+    @DisplayName("AddressBook should reuse search results until the book changes")
+    void testAddressBookSearchCache() {
+        AddressBook addressBook = new AddressBook();
+        Contact john = new Contact("John Smith", "jsmith@email.com", "1234567890");
+        addressBook.addContact(john);
+
+        List<Contact> first = addressBook.filterContactsByName("smith");
+        assertSame(first, addressBook.filterContactsByName("SMITH"));
+        assertSame(addressBook.findContactsByName("smith", 0, 10), addressBook.findContactsByName("Smith", 0, 10));
+
+        addressBook.addContact(new Contact("Jane Smithers", "jane@email.com", "0987654321"));
+        assertEquals(2, addressBook.filterContactsByName("smith").size());
+        addressBook.editContact(john.getId(), "John Jones", "jsmith@email.com", "1234567890");
+        assertEquals(1, addressBook.filterContactsByName("smith").size());
+        addressBook.deleteAll();
+        assertEquals(0, addressBook.filterContactsByName("smith").size());
+
+        SearchCache<?, ?> cache = addressBook.getSearchCache();
+        assertEquals(2, cache.getHits());
+        assertEquals(5, cache.getMisses());
+        assertEquals(29, addressBook.getMetrics().readGauges().get("SearchCacheHitPercent"));
+    }
+
+    @Test
+    @DisplayName("A cache size of 0 should disable caching")
+    void testDisabled() {
+        AddressBook addressBook = new AddressBook(0);
+        addressBook.addContact(new Contact("John Smith", "jsmith@email.com", "1234567890"));
+
+        addressBook.filterContactsByName("smith");
+        addressBook.filterContactsByName("smith");
+
+        assertEquals(0, addressBook.getSearchCache().getHits());
+        assertEquals(0, addressBook.getSearchCache().size());
+    }
+}
@@ -0,0 +1,109 @@
+package com.addressbook.app.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.addressbook.app.AddressBook;
+import com.addressbook.app.Contact;
+import com.addressbook.app.exceptions.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContactEventBusTest {
+
+    @Test
+    @DisplayName("AddressBook should publish added, edited, removed and cleared events in sequence")
+    void testAddressBookEvents() {
+        AddressBook addressBook = new AddressBook();
+        List<ContactEvent> received = Collections.synchronizedList(new ArrayList<>());
+        Subscription subscription = addressBook.getEvents().subscribe(received::addAll);
+        Contact john = new Contact("John Smith", "jsmith@email.com", "1234567890");
+        Contact steve = new Contact("Steve Jones", "sjones@email.net", "0987654321");
+
+        addressBook.addContact(john);
+        addressBook.addContact(steve);
+        assertThrows(ValidationException.class, () -> addressBook.addContact(new Contact("Copy", "JSmith@email.com", "5555555555")));
+        addressBook.editContact(john.getId(), "Johnny Smith", "jsmith@email.com", "1234567890");
+        addressBook.removeContact(steve.getId());
+        addressBook.deleteAll();
+        subscription.close();
+
+        assertEquals(List.of(ContactEventType.ADDED, ContactEventType.ADDED, ContactEventType.EDITED, ContactEventType.REMOVED, ContactEventType.CLEARED),
+                received.stream().map(ContactEvent::type).toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), received.stream().map(ContactEvent::sequence).toList());
+        ContactEvent edit = received.get(2);
+        assertEquals("John Smith", edit.before().name());
+        assertEquals("Johnny Smith", edit.after().name());
+        assertEquals(steve.getId(), received.get(3).contactId());
+        assertNull(received.get(3).after());
+        assertTrue(!addressBook.getEvents().hasSubscribers());
+    }
+
+    @Test
+    @DisplayName("Events that build up behind a slow listener should be delivered in batches")
+    void testBatchedDelivery() throws InterruptedException {
+        ContactEventBus bus = new ContactEventBus();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        Subscription subscription = bus.subscribe(events -> {
+            batchSizes.add(events.size());
+            awaitQuietly(release);
+        }, 64, 10, BackpressurePolicy.BLOCK);
+
+        for (int i = 0; i < 31; i++) {
+            bus.publish(ContactEventType.CLEARED, null, null);
+        }
+        release.countDown();
+        subscription.close();
+
+        assertEquals(31, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.size() <= 5, batchSizes.toString());
+        assertEquals(31, subscription.getDeliveredEvents());
+        assertEquals(0, subscription.getDroppedEvents());
+    }
+
+    @Test
+    @DisplayName("DROP_NEWEST and DROP_OLDEST should keep publishing without blocking when a buffer is full")
+    void testDropPolicies() throws InterruptedException {
+        for (BackpressurePolicy policy : new BackpressurePolicy[] {BackpressurePolicy.DROP_NEWEST, BackpressurePolicy.DROP_OLDEST}) {
+            ContactEventBus bus = new ContactEventBus();
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            List<Long> sequences = Collections.synchronizedList(new ArrayList<>());
+            Subscription subscription = bus.subscribe(events -> {
+                events.forEach(event -> sequences.add(event.sequence()));
+                started.countDown();
+                awaitQuietly(release);
+            }, 4, 100, policy);
+
+            bus.publish(ContactEventType.CLEARED, null, null);
+            assertTrue(started.await(5, TimeUnit.SECONDS));     // the listener now holds event 1, the buffer is empty
+            for (int i = 0; i < 10; i++) {
+                bus.publish(ContactEventType.CLEARED, null, null);
+            }
+            release.countDown();
+            subscription.close();
+
+            assertEquals(6, subscription.getDroppedEvents(), policy.name());
+            List<Long> expected = policy == BackpressurePolicy.DROP_NEWEST ? List.of(1L, 2L, 3L, 4L, 5L) : List.of(1L, 8L, 9L, 10L, 11L);
+            assertEquals(expected, sequences, policy.name());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.addressbook.app.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.addressbook.app.ConcurrentAddressBook;
+import com.addressbook.app.Contact;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AddressBookServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ConcurrentAddressBook addressBook;
+    private AddressBookServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        addressBook = new ConcurrentAddressBook();
+        server = new AddressBookServer(addressBook, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("POST, GET, PUT and DELETE should add, read, edit and remove a contact")
+    void testContactLifecycle() throws Exception {
+        HttpResponse<String> created = send("POST", "/contacts", contactJson("John Smith", "jsmith@email.com", "1234567890"));
+        assertEquals(201, created.statusCode());
+        String id = Json.parseObject(created.body()).get("id");
+        assertEquals("/contacts/" + id, created.headers().firstValue("Location").orElse(null));
+
+        HttpResponse<String> found = send("GET", "/contacts/" + id, null);
+        assertEquals(200, found.statusCode());
+        assertEquals("John Smith", Json.parseObject(found.body()).get("name"));
+
+        HttpResponse<String> edited = send("PUT", "/contacts/" + id, contactJson("John \"Johnny\" Smith", "john@email.com", "1234567890"));
+        assertEquals(200, edited.statusCode());
+        assertEquals("John \"Johnny\" Smith", addressBook.findContact(Integer.parseInt(id)).getName());
+
+        assertEquals(204, send("DELETE", "/contacts/" + id, null).statusCode());
+        assertEquals(404, send("GET", "/contacts/" + id, null).statusCode());
+        assertEquals(404, send("DELETE", "/contacts/" + id, null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Invalid fields should return 400 and duplicate keys 409, with an error message")
+    void testErrors() throws Exception {
+        send("POST", "/contacts", contactJson("John Smith", "jsmith@email.com", "1234567890"));
+
+        HttpResponse<String> duplicate = send("POST", "/contacts", contactJson("Other", "JSmith@email.com", "0987654321"));
+        assertEquals(409, duplicate.statusCode());
+        assertEquals("Email already exists", Json.parseObject(duplicate.body()).get("error"));
+
+        assertEquals(400, send("POST", "/contacts", contactJson("", "a@b.com", "0987654321")).statusCode());
+        assertEquals(400, send("POST", "/contacts", "{\"name\":").statusCode());
+        assertEquals(400, send("POST", "/contacts", "{\"name\":\"No Email\"}").statusCode());
+        assertEquals(400, send("GET", "/contacts/abc", null).statusCode());
+        assertEquals(400, send("GET", "/contacts?limit=0", null).statusCode());
+        assertEquals(404, send("PUT", "/contacts/999999", contactJson("Nobody", "n@b.com", "1112223333")).statusCode());
+        assertEquals(405, send("PUT", "/contacts", null).statusCode());
+        assertEquals(1, addressBook.size());
+
+        Contact steve = new Contact("Steve", "steve@email.com", "5554443333");
+        addressBook.addContact(steve);
+        HttpResponse<String> duplicatePhone = send("PUT", "/contacts/" + steve.getId(), contactJson("Steve", "steve@email.com", "123-456-7890"));
+        assertEquals(409, duplicatePhone.statusCode());
+        assertEquals("Phone number already exists", Json.parseObject(duplicatePhone.body()).get("error"));
+        assertEquals(400, send("PUT", "/contacts/" + steve.getId(), contactJson("Steve", "not an email", "5554443333")).statusCode());
+    }
+
+    @Test
+    @DisplayName("GET /contacts should page through contacts in name order with an opaque cursor")
+    void testPaging() throws Exception {
+        for (String name : new String[] {"Carol", "Alice", "Eve", "Bob", "Dave"}) {
+            send("POST", "/contacts", contactJson(name, name.toLowerCase() + "@email.com", "555000" + name.length() + name.charAt(0) % 10 + "00"));
+        }
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String query = cursor == null ? "?limit=2" : "?limit=2&after=" + cursor;
+            HttpResponse<String> page = send("GET", "/contacts" + query, null);
+            assertEquals(200, page.statusCode());
+            for (String contact : page.body().split("\\},\\{")) {
+                int start = contact.indexOf("\"name\":\"") + 8;
+                names.add(contact.substring(start, contact.indexOf('"', start)));
+            }
+            int at = page.body().lastIndexOf("\"nextCursor\":");
+            String next = page.body().substring(at + 13, page.body().length() - 1);
+            cursor = next.equals("null") ? null : next.substring(1, next.length() - 1);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of("Alice", "Bob", "Carol", "Dave", "Eve"), names);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    @DisplayName("GET /contacts/search should return matching contacts with the total")
+    void testSearch() throws Exception {
+        send("POST", "/contacts", contactJson("John Smith", "jsmith@email.com", "1234567890"));
+        send("POST", "/contacts", contactJson("Jane Smithers", "jane@email.com", "0987654321"));
+        send("POST", "/contacts", contactJson("Steve Jones", "sjones@email.com", "5555555555"));
+
+        HttpResponse<String> response = send("GET", "/contacts/search?q=SMITH&limit=1", null);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("{\"total\":2,\"contacts\":[{"), response.body());
+        assertTrue(response.body().contains("Jane Smithers"), response.body());
+        assertTrue(!response.body().contains("John Smith"), response.body());
+        assertTrue(response.body().endsWith(",\"exactTotal\":false}"), response.body());
+        assertEquals(400, send("GET", "/contacts/search", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for the same email should add exactly one contact")
+    void testConcurrentAdds() {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String phoneNumber = String.format("555%07d", i);
+            responses.add(client.sendAsync(request("POST", "/contacts", contactJson("Same " + i, "same@email.com", phoneNumber)),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+
+        long created = responses.stream().map(CompletableFuture::join).filter(response -> response.statusCode() == 201).count();
+        long conflicts = responses.stream().map(CompletableFuture::join).filter(response -> response.statusCode() == 409).count();
+
+        assertEquals(1, created);
+        assertEquals(49, conflicts);
+        assertEquals(1, addressBook.size());
+    }
+
+    @Test
+    @DisplayName("The cursor should round trip names containing separators and non-ASCII characters")
+    void testCursorRoundTrip() {
+        var key = new com.addressbook.app.index.NameKey("Zoë: O'Brien", 42);
+        assertEquals(key, ContactsHandler.decodeCursor(ContactsHandler.encodeCursor(key)));
+    }
+
+    @Test
+    @DisplayName("parseObject() should read flat objects with escapes and drop nulls")
+    void testParseObject() {
+        Map<String, String> fields = Json.parseObject("{ \"name\" : \"A\\u00e9\\n\", \"age\": 3, \"x\": null, \"ok\": true }");
+
+        assertEquals("Aé\n", fields.get("name"));
+        assertEquals("3", fields.get("age"));
+        assertEquals("true", fields.get("ok"));
+        assertNull(fields.get("x"));
+        assertNotNull(fields);
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws IOException, InterruptedException {
+        return client.send(request(method, path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path, String body) {
+        HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body);
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).method(method, publisher).build();
+    }
+
+    private static String contactJson(String name, String email, String phoneNumber) {
+        StringBuilder json = new StringBuilder("{\"name\":");
+        try {
+            Json.writeString(json, name);
+            json.append(",\"email\":");
+            Json.writeString(json, email);
+            json.append(",\"phoneNumber\":");
+            Json.writeString(json, phoneNumber);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.addressbook.app.importer;
+
+import com.addressbook.app.AddressBook;
+import com.addressbook.app.Contact;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContactImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("importCsv() should insert valid rows and report invalid and duplicate ones in row order")
+    void testImportCsvRejectsInvalidAndDuplicateRows() throws IOException {
+        AddressBook addressBook = new AddressBook();
+        addressBook.addContact(new Contact("Existing", "existing@email.com", "5550000000"));
+        Path file = directory.resolve("contacts.csv");
+        Files.writeString(file, String.join("\n",
+                "Phone,Full Name,E-mail",
+                "1234567890,\"Smith, John\",jsmith@email.com",
+                "0987654321,Steve,not-an-email",
+                "5550000000,Copycat,copycat@email.com",
+                "1112223333,Jane,JSmith@email.com",
+                "4445556666,\"Multi",
+                "Line\",multi@email.com",
+                ""));
+
+        ImportReport report = new ContactImporter(addressBook, 2, 2).importCsv(file, null);
+
+        assertEquals(5, report.getProcessedCount());
+        assertEquals(2, report.getAcceptedCount());
+        assertEquals(List.of(2L, 3L, 4L), report.getRejectedRows().stream().map(RejectedRow::rowNumber).toList());
+        assertEquals("Phone number already exists", report.getRejectedRows().get(1).reason());
+        assertEquals("Email already exists", report.getRejectedRows().get(2).reason());
+        assertEquals(1, addressBook.filterContactsByName("Smith, John").size());
+        assertEquals("Multi\nLine", addressBook.filterContactsByName("Multi").get(0).getName());
+    }
+
+    @Test
+    @DisplayName("importVCard() should read folded lines, FN or N, and the first email and telephone")
+    void testImportVCard() throws IOException {
+        AddressBook addressBook = new AddressBook();
+        Path file = directory.resolve("contacts.vcf");
+        Files.writeString(file, String.join("\r\n",
+                "BEGIN:VCARD",
+                "VERSION:3.0",
+                "FN:John Sm",
+                " ith",
+                "EMAIL;TYPE=work:jsmith@email.com",
+                "EMAIL;TYPE=home:john@home.com",
+                "TEL;TYPE=cell:1234567890",
+                "END:VCARD",
+                "BEGIN:VCARD",
+                "VERSION:4.0",
+                "N:Jones;Steve;;;",
+                "item1.EMAIL:sjones@email.net",
+                "TEL;VALUE=uri:tel:0987654321",
+                "END:VCARD",
+                "BEGIN:VCARD",
+                "FN:No Phone",
+                "EMAIL:nophone@email.com",
+                "END:VCARD",
+                ""));
+
+        ImportReport report = new ContactImporter(addressBook).importVCard(file, null);
+
+        assertEquals(2, report.getAcceptedCount());
+        assertEquals(1, report.getRejectedCount());
+        assertEquals(3, report.getRejectedRows().get(0).rowNumber());
+        assertNotNull(addressBook.filterContactsByName("John Smith").get(0));
+        assertEquals("0987654321", addressBook.filterContactsByName("Steve Jones").get(0).getPhoneNumber());
+    }
+
+    @Test
+    @DisplayName("importFrom() should report progress after every batch and keep every row across many batches")
+    void testImportReportsProgress() throws IOException {
+        AddressBook addressBook = new AddressBook();
+        StringBuilder csv = new StringBuilder("name,email,phone\n");
+        int rows = 5_000;
+        for (int i = 0; i < rows; i++) {
+            csv.append("Name ").append(i).append(",user").append(i).append("@email.com,").append(String.format("555%07d", i)).append('\n');
+        }
+        List<Long> processed = new ArrayList<>();
+
+        ImportReport report = new ContactImporter(addressBook, 4, 100)
+                .importFrom(new StringReader(csv.toString()), new CsvContactFormat(), (done, accepted, rejected, perSecond) -> processed.add(done));
+
+        assertEquals(rows, report.getAcceptedCount());
+        assertEquals(rows, addressBook.getContacts().size());
+        assertEquals(rows / 100, processed.size());
+        assertEquals(rows, processed.get(processed.size() - 1));
+        assertTrue(report.getRecordsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("importFrom() should fail when the CSV header does not name the contact columns")
+    void testImportRejectsUnknownHeader() {
+        ContactImporter importer = new ContactImporter(new AddressBook());
+        assertThrows(IOException.class, () -> importer.importFrom(new StringReader("a,b,c\nx,y,z\n"), new CsvContactFormat(), null));
+    }
+
+    @Test
+    @DisplayName("importFrom() should keep only the first rejected rows and count the rest")
+    void testImportCapsStoredRejections() throws IOException {
+        AddressBook addressBook = new AddressBook();
+        StringBuilder csv = new StringBuilder("name,email,phone\n");
+        for (int i = 0; i < 1_000; i++) {
+            csv.append("Name ").append(i).append(",not an email,").append(String.format("555%07d", i)).append('\n');
+        }
+        csv.append("Good,good@email.com,5551234567\n");
+
+        ImportReport report = new ContactImporter(addressBook, 2, 64, 10)
+                .importFrom(new StringReader(csv.toString()), new CsvContactFormat(), null);
+
+        assertEquals(1, report.getAcceptedCount());
+        assertEquals(1_000, report.getRejectedCount());
+        assertEquals(1_001, report.getProcessedCount());
+        assertEquals(10, report.getRejectedRows().size());
+        assertEquals(10, report.getRejectedRows().get(9).rowNumber());
+        assertEquals(990, report.getOmittedRejectionCount());
+        StringBuilder out = new StringBuilder();
+        report.writeRejectedRows(out);
+        assertTrue(out.toString().endsWith("... and 990 more rejected rows\n"), out.toString());
+    }
+}
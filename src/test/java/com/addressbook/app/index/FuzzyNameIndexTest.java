@@ -0,0 +1,79 @@
+package com.addressbook.app.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FuzzyNameIndexTest {
+
+    @Test
+    @DisplayName("search() should find names within the edit distance of every query word")
+    void testSearchToleratesTypos() {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        index.add(1, "John Smith");
+        index.add(2, "Joan Smyth");
+        index.add(3, "Steve Jones");
+        List<FuzzyMatch> matches = index.search("Jonh Smtih", 2);
+        assertEquals(Set.of(1, 2), ids(matches));
+        assertEquals(4, matches.stream().filter(match -> match.id() == 1).findFirst().orElseThrow().distance());
+        assertEquals(Set.of(3), ids(index.search("steve", 0)));
+        assertTrue(index.search("Jonh Smtih", 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("search() should return exactly what a scan of every token would, after removals")
+    void testSearchMatchesBruteForce() {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        Random random = new Random(14);
+        List<String> names = new ArrayList<>();
+        for (int id = 0; id < 3_000; id++) {
+            names.add(randomWord(random) + " " + randomWord(random));
+            index.add(id, names.get(id));
+        }
+        for (int id = 0; id < 3_000; id += 4) {
+            index.remove(id);
+        }
+        int[] previous = new int[32];
+        int[] current = new int[32];
+        for (int q = 0; q < 50; q++) {
+            String query = randomWord(random);
+            Set<Integer> expected = new TreeSet<>();
+            for (int id = 1; id < names.size(); id++) {
+                if (id % 4 == 0) {
+                    continue;
+                }
+                for (String token : names.get(id).toLowerCase().split(" ")) {
+                    if (FuzzyNameIndex.levenshtein(query, token, previous, current) <= 2) {
+                        expected.add(id);
+                    }
+                }
+            }
+            assertEquals(expected, ids(index.search(query, 2)), "query " + query);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            word.append("abcdeo".charAt(random.nextInt(6)));
+        }
+        return word.toString();
+    }
+
+    private static Set<Integer> ids(List<FuzzyMatch> matches) {
+        Set<Integer> ids = new TreeSet<>();
+        for (FuzzyMatch match : matches) {
+            ids.add(match.id());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,50 @@
+package com.addressbook.app.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class IntIntHashMapTest {
+
+    @Test
+    @DisplayName("get() should return the value stored by put(), and NO_VALUE for missing keys")
+    void testPutAndGet() {
+        IntIntHashMap map = new IntIntHashMap();
+        map.put(1, 10);
+        map.put(0, 20);
+        assertEquals(10, map.get(1));
+        assertEquals(20, map.get(0));
+        assertEquals(IntIntHashMap.NO_VALUE, map.get(2));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    @DisplayName("remove() should keep every other key reachable after many inserts and resizes")
+    void testRemoveKeepsOtherKeysReachable() {
+        IntIntHashMap map = new IntIntHashMap();
+        for (int i = 1; i <= 10_000; i++) {
+            map.put(i, i * 2);
+        }
+        for (int i = 1; i <= 10_000; i += 2) {
+            assertEquals(i * 2, map.remove(i));
+        }
+        for (int i = 1; i <= 10_000; i++) {
+            assertEquals(i % 2 == 0 ? i * 2 : IntIntHashMap.NO_VALUE, map.get(i), "wrong value for key " + i);
+        }
+        assertEquals(5_000, map.size());
+    }
+
+    @Test
+    @DisplayName("clear() should remove every key")
+    void testClear() {
+        IntIntHashMap map = new IntIntHashMap();
+        map.put(0, 1);
+        map.put(5, 1);
+        map.clear();
+        assertFalse(map.containsKey(0));
+        assertFalse(map.containsKey(5));
+        assertEquals(0, map.size());
+    }
+}
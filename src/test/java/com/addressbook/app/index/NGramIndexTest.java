@@ -0,0 +1,83 @@
+package com.addressbook.app.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class NGramIndexTest {
+
+    private static int[] sorted(int[] ids) {
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    @Test
+    @DisplayName("search() should find names containing the query regardless of case")
+    void testSearchFindsSubstrings() {
+        NGramIndex index = new NGramIndex();
+        index.add(1, "John Smith");
+        index.add(2, "Jozef Johnson");
+        index.add(3, "Steve");
+        assertArrayEquals(new int[] {1, 2}, sorted(index.search("JOHN")));
+        assertArrayEquals(new int[] {1}, sorted(index.search("n sm")));
+        assertArrayEquals(new int[0], index.search("xyz"));
+    }
+
+    @Test
+    @DisplayName("search() should confirm candidates whose trigrams all match but not in one piece")
+    void testSearchRejectsScatteredTrigrams() {
+        NGramIndex index = new NGramIndex();
+        index.add(1, "abcd bcde");
+        assertArrayEquals(new int[0], index.search("abcde"));
+        assertArrayEquals(new int[] {1}, index.search("bcde"));
+    }
+
+    @Test
+    @DisplayName("search() should scan for queries shorter than a trigram")
+    void testSearchShortQueries() {
+        NGramIndex index = new NGramIndex();
+        index.add(1, "Jo");
+        index.add(2, "Steve");
+        assertArrayEquals(new int[] {1}, index.search("j"));
+        assertArrayEquals(new int[] {1, 2}, sorted(index.search("")));
+    }
+
+    @Test
+    @DisplayName("add() and remove() should keep the index in step with renamed and removed names")
+    void testIncrementalUpdates() {
+        NGramIndex index = new NGramIndex();
+        index.add(1, "John");
+        index.add(2, "Steve");
+        index.add(1, "Jane");
+        index.remove(2);
+        index.add(3, "Stephen");
+        assertArrayEquals(new int[0], index.search("john"));
+        assertArrayEquals(new int[] {1}, index.search("jane"));
+        assertArrayEquals(new int[] {3}, index.search("ste"));
+    }
+
+    @Test
+    @DisplayName("remove() should keep the other names searchable when entries are swapped within shared posting lists")
+    void testRemoveFromSharedPostingLists() {
+        NGramIndex index = new NGramIndex();
+        for (int id = 1; id <= 1000; id++) {
+            index.add(id, "Smith " + id);
+        }
+        for (int id = 1; id <= 1000; id += 3) {
+            index.remove(id);
+        }
+        for (int id = 2; id <= 1000; id += 3) {
+            index.add(id, "Jones " + id);
+        }
+        int[] smiths = sorted(index.search("smith"));
+        int[] expected = IntStream.rangeClosed(1, 1000).filter(id -> id % 3 == 0).toArray();
+        assertArrayEquals(expected, smiths);
+        assertArrayEquals(new int[] {500}, index.search("Jones 500"));
+        assertArrayEquals(new int[] {999}, index.search("th 999"));
+        assertArrayEquals(new int[] {999}, index.search("smith 999"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.addressbook.app.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PersistentSortedMapTest {
+
+    @Test
+    @DisplayName("put() and remove() should behave like a TreeMap over random operations")
+    void testMatchesTreeMap() {
+        Random random = new Random(7);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        PersistentSortedMap<Integer, String> map = PersistentSortedMap.empty();
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, "v" + i);
+                map = map.put(key, "v" + i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(new ArrayList<>(expected.values()), values(map.iterator()));
+        for (int key = 0; key < 2_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertEquals(new ArrayList<>(expected.tailMap(1_000, false).values()), values(map.valuesAfter(1_000)));
+    }
+
+    @Test
+    @DisplayName("Older versions should be unaffected by changes made after them")
+    void testOlderVersionsUnchanged() {
+        PersistentSortedMap<String, Integer> first = PersistentSortedMap.<String, Integer>empty().put("b", 2).put("a", 1);
+        PersistentSortedMap<String, Integer> second = first.put("c", 3).remove("a").put("b", 20);
+
+        assertEquals(List.of(1, 2), values(first.iterator()));
+        assertEquals(List.of(20, 3), values(second.iterator()));
+        assertNull(second.get("a"));
+        assertSame(second, second.remove("missing"));
+    }
+
+    private static <V> List<V> values(Iterator<V> iterator) {
+        List<V> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+        return values;
+    }
+}
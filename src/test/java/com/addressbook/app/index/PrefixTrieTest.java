@@ -0,0 +1,76 @@
+package com.addressbook.app.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrefixTrieTest {
+
+    @Test
+    @DisplayName("withPrefix() should return the ids of matching keys in key order")
+    void testWithPrefixReturnsKeyOrder() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.put("442071234567", 3);
+        trie.put("4420", 1);
+        trie.put("441611234567", 2);
+        trie.put("12125550100", 4);
+        assertArrayEquals(new int[] {1, 3}, trie.withPrefix("4420"));
+        assertArrayEquals(new int[] {2, 1, 3}, trie.withPrefix("44"));
+        assertArrayEquals(new int[] {4, 2, 1, 3}, trie.withPrefix(""));
+        assertArrayEquals(new int[] {4, 2}, trie.withPrefix("", 2));
+        assertArrayEquals(new int[0], trie.withPrefix("45"));
+    }
+
+    @Test
+    @DisplayName("remove() should only drop a key still mapped to the given id and prune empty branches")
+    void testRemove() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.put("abc", 1);
+        trie.put("abd", 2);
+        assertFalse(trie.remove("abc", 2));
+        assertFalse(trie.remove("ab", 1));
+        assertTrue(trie.remove("abc", 1));
+        assertEquals(PrefixTrie.NO_ID, trie.get("abc"));
+        assertEquals(2, trie.get("abd"));
+        assertEquals(1, trie.size());
+        assertTrue(trie.remove("abd", 2));
+        assertArrayEquals(new int[0], trie.withPrefix("a"));
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    @DisplayName("Keys that split and re-merge shared edges should stay reachable by exact key and by prefix")
+    void testSplitAndMergeEdges() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.put("romane", 1);
+        trie.put("romanus", 2);
+        trie.put("romulus", 3);
+        trie.put("rom", 4);
+        trie.put("rubens", 5);
+        assertEquals(PrefixTrie.NO_ID, trie.get("roma"));
+        assertEquals(PrefixTrie.NO_ID, trie.get("romanusx"));
+        assertArrayEquals(new int[] {4, 1, 2, 3}, trie.withPrefix("ro"));
+        assertArrayEquals(new int[] {1, 2}, trie.withPrefix("roma"));
+        assertArrayEquals(new int[0], trie.withPrefix("romax"));
+        assertTrue(trie.remove("rom", 4));
+        assertTrue(trie.remove("romulus", 3));
+        assertArrayEquals(new int[] {1, 2}, trie.withPrefix("rom"));
+        assertTrue(trie.remove("romane", 1));
+        assertEquals(2, trie.get("romanus"));
+        assertArrayEquals(new int[] {2, 5}, trie.withPrefix("r"));
+        trie.put("romane", 6);
+        assertArrayEquals(new int[] {6, 2}, trie.withPrefix("roman"));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    @DisplayName("reversedDomainKey() should group emails by domain with the broadest label first")
+    void testReversedDomainKey() {
+        assertEquals("com.ourcorp.mail@jsmith", ContactKeys.reversedDomainKey("jsmith@mail.ourcorp.com"));
+        assertEquals("localhost@root", ContactKeys.reversedDomainKey("root@localhost"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.addressbook.app.metrics;
+
+import com.addressbook.app.AddressBook;
+import com.addressbook.app.Contact;
+import com.addressbook.app.exceptions.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AddressBookMetricsTest {
+
+    @Test
+    @DisplayName("LatencyHistogram percentiles should be within 3% of the exact values")
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(16);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20);     // spread from 1 ns to about 0.5 s
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getPercentileNanos(percentile);
+            assertTrue(Math.abs(reported - exact) <= Math.max(1, exact * 0.03), "p" + percentile + " was " + reported + " expected " + exact);
+        }
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMaxNanos());
+    }
+
+    @Test
+    @DisplayName("recording an operation should not allocate")
+    void testRecordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        OperationStats stats = new OperationStats();
+        for (int i = 0; i < 10_000; i++) {     // warm up so the measured loop runs compiled code
+            stats.record(System.nanoTime() - i, false);
+        }
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        for (int i = 0; i < 100_000; i++) {
+            stats.record(System.nanoTime() - i, (i & 7) == 0);
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().threadId()) - before;
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+
+    @Test
+    @DisplayName("Validation should be counted once per contact or setter call, and not again when the book applies an edit")
+    void testValidationCounts() {
+        AddressBook addressBook = new AddressBook();
+        long before = AddressBookMetrics.VALIDATION.getCalls();
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        john.setName("Johnny");
+        assertThrows(ValidationException.class, () -> john.setEmail("not an email"));
+        assertEquals(before + 3, AddressBookMetrics.VALIDATION.getCalls());
+        addressBook.addContact(john);
+        addressBook.editContact(john.getId(), "John", "john@email.com", "1234567891");
+        assertEquals(before + 3, AddressBookMetrics.VALIDATION.getCalls());
+        assertEquals("john@email.com", addressBook.findContact(john.getId()).getEmail());
+    }
+
+    @Test
+    @DisplayName("AddressBook should count operations and failures and expose them over JMX")
+    void testAddressBookMetricsOverJmx() throws Exception {
+        AddressBook addressBook = new AddressBook();
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        addressBook.addContact(john);
+        assertThrows(ValidationException.class, () -> addressBook.addContact(new Contact("Copy", "jsmith@email.com", "0987654321")));
+        addressBook.filterContactsByName("jo");
+        addressBook.findContactsByName("john", 0, 20);
+        addressBook.removeContact(-1);
+        addressBook.getAllContacts();
+
+        AddressBookMetrics metrics = addressBook.getMetrics();
+        assertEquals(2, metrics.get(Operation.ADD).getCalls());
+        assertEquals(1, metrics.get(Operation.ADD).getFailures());
+        assertEquals(2, metrics.get(Operation.SEARCH).getCalls());
+        assertEquals(1, metrics.get(Operation.REMOVE).getFailures());
+        assertEquals(1, metrics.get(Operation.LIST).getCalls());
+
+        ObjectName name = metrics.registerMBean("metrics-test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(2L, server.getAttribute(name, "AddCalls"));
+            assertEquals(1L, server.getAttribute(name, "AddFailures"));
+            assertEquals(1, server.getAttribute(name, "Contacts"));
+            assertTrue((Double) server.getAttribute(name, "SearchP99Micros") > 0);
+            server.invoke(name, "resetStatistics", null, null);
+            assertEquals(0L, server.getAttribute(name, "AddCalls"));
+            assertThrows(ReflectionException.class, () -> server.invoke(name, "frobnicate", null, null));
+        } finally {
+            metrics.unregisterMBean();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.addressbook.app.persistence;
+
+import com.addressbook.app.Contact;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DurableAddressBookTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("reopening should replay adds, edits and removes from the log")
+    void testReopenReplaysLog() throws Exception {
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        Contact steve = new Contact("Steve", "sjones@email.net", "0987654321");
+        try (DurableAddressBook addressBook = DurableAddressBook.open(directory, FsyncPolicy.perWrite())) {
+            addressBook.addContact(john);
+            addressBook.addContact(steve);
+            addressBook.editContact(john.getId(), "Jane", "jdoe@email.com", "1234567890");
+            addressBook.removeContact(steve.getId());
+        }
+        try (DurableAddressBook reopened = DurableAddressBook.open(directory, FsyncPolicy.perWrite())) {
+            assertEquals(1, reopened.size());
+            Contact restored = reopened.findContact(john.getId());
+            assertEquals("Jane", restored.getName());
+            assertEquals("jdoe@email.com", restored.getEmail());
+            assertNull(reopened.findContact(steve.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("reopening should load the latest snapshot and then the log written after it")
+    void testReopenLoadsSnapshotThenLogTail() throws Exception {
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        Contact steve = new Contact("Steve", "sjones@email.net", "0987654321");
+        try (DurableAddressBook addressBook = DurableAddressBook.open(directory, FsyncPolicy.perBatch())) {
+            addressBook.addContact(john);
+            addressBook.checkpoint();
+            addressBook.addContact(steve);
+            addressBook.deleteAll();
+            addressBook.addContact(john);
+        }
+        try (DurableAddressBook reopened = DurableAddressBook.open(directory, FsyncPolicy.perBatch())) {
+            assertEquals(1, reopened.size());
+            assertEquals("John", reopened.findContact(john.getId()).getName());
+        }
+    }
+
+    @Test
+    @DisplayName("concurrent writers sharing group commits should all be durable")
+    void testConcurrentWritersAreAllDurable() throws Exception {
+        int threads = 8;
+        int contactsPerThread = 200;
+        try (DurableAddressBook addressBook = DurableAddressBook.open(directory, FsyncPolicy.perBatch(), 500)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < contactsPerThread; i++) {
+                        int n = thread * contactsPerThread + i;
+                        addressBook.addContact(new Contact("Name " + n, "user" + n + "@email.com", String.format("555%07d", n)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+        }
+        try (DurableAddressBook reopened = DurableAddressBook.open(directory, FsyncPolicy.everyMillis(5))) {
+            assertEquals(threads * contactsPerThread, reopened.size());
+        }
+    }
+
+    @Test
+    @DisplayName("a torn record at the end of the log should be ignored on replay")
+    void testTornTailIsIgnored() throws Exception {
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        try (DurableAddressBook addressBook = DurableAddressBook.open(directory, FsyncPolicy.perWrite())) {
+            addressBook.addContact(john);
+        }
+        try (var segments = Files.list(directory)) {
+            Path segment = segments.filter(path -> path.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+            Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+        try (DurableAddressBook reopened = DurableAddressBook.open(directory, FsyncPolicy.perWrite())) {
+            assertEquals(1, reopened.size());
+        }
+    }
+
+    @Test
+    @DisplayName("records written after reopening over a torn tail should survive the next reopen")
+    void testWritesAfterTornTailAreReplayed() throws Exception {
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        Contact steve = new Contact("Steve", "sjones@email.net", "0987654321");
+        Contact joe = new Contact("Joe", "jjoestar@email.com", "0987612345");
+        try (DurableAddressBook addressBook = DurableAddressBook.open(directory, FsyncPolicy.perWrite())) {
+            addressBook.addContact(john);
+            addressBook.checkpoint();      // leaves a fresh, empty segment named after the next sequence
+        }
+        appendGarbageToNewestSegment();
+        try (DurableAddressBook reopened = DurableAddressBook.open(directory, FsyncPolicy.perWrite())) {
+            reopened.addContact(steve);
+        }
+        appendGarbageToNewestSegment();     // this time behind an intact record
+        try (DurableAddressBook reopened = DurableAddressBook.open(directory, FsyncPolicy.perWrite())) {
+            assertEquals(2, reopened.size());
+            reopened.addContact(joe);
+        }
+        try (DurableAddressBook reopened = DurableAddressBook.open(directory, FsyncPolicy.perWrite())) {
+            assertEquals(3, reopened.size());
+            assertEquals("Joe", reopened.findContact(joe.getId()).getName());
+        }
+    }
+
+    @Test
+    @DisplayName("a change the log cannot take should not reach the in-memory book")
+    void testFailedAppendLeavesBookUnchanged() throws Exception {
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        DurableAddressBook addressBook = DurableAddressBook.open(directory, FsyncPolicy.perWrite());
+        addressBook.addContact(john);
+        addressBook.close();
+        assertThrows(UncheckedIOException.class, () -> addressBook.addContact(new Contact("Steve", "sjones@email.net", "0987654321")));
+        assertThrows(UncheckedIOException.class, () -> addressBook.editContact(john.getId(), "Jane", "jsmith@email.com", "1234567890"));
+        assertThrows(UncheckedIOException.class, () -> addressBook.removeContact(john.getId()));
+        assertThrows(UncheckedIOException.class, addressBook::deleteAll);
+        assertEquals(1, addressBook.size());
+        assertEquals("John", addressBook.findContact(john.getId()).getName());
+    }
+
+    private void appendGarbageToNewestSegment() throws Exception {
+        try (var segments = Files.list(directory)) {
+            Path segment = segments.filter(path -> path.getFileName().toString().startsWith("wal-")).max(Comparator.naturalOrder()).orElseThrow();
+            Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+    }
+}
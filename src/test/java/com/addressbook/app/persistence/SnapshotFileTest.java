@@ -0,0 +1,52 @@
+package com.addressbook.app.persistence;
+
+import com.addressbook.app.Contact;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("load() should map back every contact, its id and the stored id counter")
+    void testWriteThenLoadRoundTrips() throws IOException {
+        Path file = SnapshotFile.write(directory, 42, 1000, List.of(
+                new SavedContact(7, "Zoë Smith", "zsmith@email.com", "(555) 123-4567"),
+                new SavedContact(3, "John", "jsmith@email.com", "1234567890")));
+        SnapshotFile.Snapshot snapshot = SnapshotFile.load(file);
+        assertEquals(42, snapshot.getSequence());
+        assertEquals(1000, snapshot.getIdHighWaterMark());
+        assertEquals(2, snapshot.size());
+        assertEquals(3, snapshot.getId(1));
+        Contact zoe = snapshot.getContact(0);
+        assertEquals(Contact.class, zoe.getClass());    // decoded up front, not a view over the mapped file
+        assertEquals(7, zoe.getId());
+        assertEquals("Zoë Smith", zoe.getName());
+        assertEquals("(555) 123-4567", zoe.getPhoneNumber());
+        assertEquals("zsmith@email.com", zoe.getEmail());
+        zoe.setEmail("zoe@email.com");
+        assertEquals("zoe@email.com", zoe.getEmail());
+        assertEquals(SnapshotFile.latest(directory), file);
+    }
+
+    @Test
+    @DisplayName("load() should reject a snapshot that was cut short")
+    void testLoadRejectsTruncatedSnapshot() throws IOException {
+        Path file = SnapshotFile.write(directory, 1, 10, List.of(new SavedContact(1, "John", "jsmith@email.com", "1234567890")));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+        assertThrows(IOException.class, () -> SnapshotFile.load(file));
+    }
+}
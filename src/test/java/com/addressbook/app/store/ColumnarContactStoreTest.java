@@ -0,0 +1,107 @@
+package com.addressbook.app.store;
+
+import com.addressbook.app.Contact;
+import com.addressbook.app.exceptions.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ColumnarContactStoreTest {
+
+    @Test
+    @DisplayName("get() should return every field exactly as it was added")
+    void testFieldsRoundTrip() {
+        ColumnarContactStore store = new ColumnarContactStore();
+        String[][] contacts = {
+                {"John Smith", "jsmith@email.com", "(012) 345-6789"},
+                {"Zoë Müller", "zoë.müller@beispiel.de", "+49 30 1234567"},
+                {"Long Number", "long@email.com", "+1 234 567 890 123 456 789 012"},
+                {"Leading Zeros", "zeros@email.com", "0000012345"},
+        };
+        for (int i = 0; i < contacts.length; i++) {
+            assertTrue(store.add(i + 1, contacts[i][0], contacts[i][1], contacts[i][2]));
+        }
+        for (int i = 0; i < contacts.length; i++) {
+            Contact contact = store.get(i + 1);
+            assertEquals(contacts[i][0], contact.getName());
+            assertEquals(contacts[i][1], contact.getEmail());
+            assertEquals(contacts[i][2], contact.getPhoneNumber());
+        }
+        assertFalse(store.add(1, "Again", "again@email.com", "1234567890"));
+    }
+
+    @Test
+    @DisplayName("remove() and update() should keep the other contacts intact through swap-removes and compaction")
+    void testRemoveAndUpdateAgainstReference() {
+        ColumnarContactStore store = new ColumnarContactStore();
+        Map<Integer, String> expectedNames = new HashMap<>();
+        for (int id = 1; id <= 20_000; id++) {
+            store.add(id, "Name " + id, "user" + id + "@domain" + (id % 5) + ".com", String.format("555%07d", id));
+            expectedNames.put(id, "Name " + id);
+        }
+        for (int id = 1; id <= 20_000; id += 3) {
+            assertTrue(store.remove(id));
+            expectedNames.remove(id);
+        }
+        for (int id = 2; id <= 20_000; id += 3) {
+            assertTrue(store.update(id, "Renamed " + id, "renamed" + id + "@other.org", "555-000-" + id));
+            expectedNames.put(id, "Renamed " + id);
+        }
+        assertEquals(expectedNames.size(), store.size());
+        for (Map.Entry<Integer, String> entry : expectedNames.entrySet()) {
+            assertEquals(entry.getValue(), store.getName(entry.getKey()));
+        }
+        assertEquals("renamed2@other.org", store.getEmail(2));
+        assertEquals("user3@domain3.com", store.getEmail(3));
+        assertEquals(6, store.getDomainCount());
+        assertNull(store.get(1));
+        assertFalse(store.remove(1));
+    }
+
+    @Test
+    @DisplayName("a view's setters should validate and write through to the store")
+    void testViewWritesThrough() {
+        ColumnarContactStore store = new ColumnarContactStore();
+        store.add(new Contact("John", "jsmith@email.com", "1234567890"));
+        Contact view = store.iterator().next();
+        view.setName("Jane");
+        assertEquals("Jane", store.getName(view.getId()));
+        assertThrows(ValidationException.class, () -> view.setEmail("not-an-email"));
+        assertEquals("jsmith@email.com", view.getEmail());
+        view.setPhoneNumber("(555) 012-3456");
+        view.setEmail("jane@other.org");
+        assertEquals("Jane", view.getName());
+        assertEquals("jane@other.org", view.getEmail());
+        assertEquals("(555) 012-3456", store.getPhoneNumber(view.getId()));
+        store.remove(view.getId());
+        assertThrows(IllegalStateException.class, view::getName);
+    }
+
+    @Test
+    @DisplayName("the row methods should keep rows dense, moving the last row into a removed one")
+    void testRowsStayDense() {
+        ColumnarContactStore store = new ColumnarContactStore();
+        Contact john = new Contact("John", "jsmith@email.com", "1234567890");
+        Contact steve = new Contact("Steve", "sjones@email.net", "0987654321");
+        Contact joe = new Contact("Joe", "jjoestar@email.com", "0987612345");
+        assertEquals(0, store.append(john));
+        assertEquals(1, store.append(steve));
+        assertEquals(2, store.append(joe));
+        assertThrows(IllegalArgumentException.class, () -> store.append(john));
+        store.removeRow(0);
+        assertEquals(ContactStore.NO_ROW, store.rowOf(john.getId()));
+        assertEquals(0, store.rowOf(joe.getId()));
+        assertEquals(store.contactAt(0), store.get(joe.getId()));
+        store.updateRow(1, "Steven", "steven@email.net", "0987654321");
+        assertEquals("Steven", store.contactAt(1).getName());
+        assertThrows(IndexOutOfBoundsException.class, () -> store.contactAt(2));
+    }
+}
@@ -0,0 +1,82 @@
+package com.addressbook.app.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContactValidatorTest {
+    // the regular expressions Contact used before the scanners, kept here as the reference behaviour
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$");
+    private static final Pattern PHONE = Pattern.compile("^[\\+]?[(]?[0-9]{3}[)]?[-\\s\\.]?[0-9]{3}[-\\s\\.]?[0-9]{4,6}$");
+
+    @Test
+    @DisplayName("isValidEmail() should accept and reject the same emails as the original regex")
+    void testEmailMatchesRegex() {
+        String[] samples = {"jsmith@email.com", "jsmithemail.com", "a@b.co", "a@.co", "@b.com", "a@b.c", "a@b.abcdefg",
+                "a.b+c%d_e-f@sub.domain.org", "a@b@c.com", "a@b.com1", "a@b.c0m", "a@b..com", "a@-.io", "A@B.CoM", "a@b.com\n"};
+        for (String sample : samples) {
+            assertEquals(EMAIL.matcher(sample).matches(), ContactValidator.isValidEmail(sample), sample);
+        }
+        Random random = new Random(42);
+        String alphabet = "aZ09._%+-@";
+        for (int i = 0; i < 200_000; i++) {
+            String sample = randomString(random, alphabet, 10);
+            assertEquals(EMAIL.matcher(sample).matches(), ContactValidator.isValidEmail(sample), sample);
+        }
+    }
+
+    @Test
+    @DisplayName("isValidPhoneNumber() should accept and reject the same numbers as the original regex")
+    void testPhoneNumberMatchesRegex() {
+        String[] samples = {"1234567890", "(555) 123-4567", "555.123.4567", "+44 207 123456", "+(123)456-7890", "12345678",
+                "123456789012345", "abcdefghij", "123-456-78901", "123--456-7890", "(123 456 7890", "123\t456\n7890"};
+        for (String sample : samples) {
+            assertEquals(PHONE.matcher(sample).matches(), ContactValidator.isValidPhoneNumber(sample), sample);
+        }
+        Random random = new Random(7);
+        String alphabet = "0123456789+() -.\ta";
+        for (int i = 0; i < 200_000; i++) {
+            String sample = randomString(random, alphabet, 16);
+            assertEquals(PHONE.matcher(sample).matches(), ContactValidator.isValidPhoneNumber(sample), sample);
+        }
+    }
+
+    @Test
+    @DisplayName("isValidName() should reject names that are blank after trimming")
+    void testNameValidation() {
+        assertTrue(ContactValidator.isValidName(" John "));
+        assertFalse(ContactValidator.isValidName(" \t\n"));
+        assertFalse(ContactValidator.isValidName(""));
+    }
+
+    @Test
+    @DisplayName("validateAll() should report every failing field of every record instead of stopping at the first")
+    void testValidateAllCollectsAllFailures() {
+        ValidationReport report = ContactValidator.validateAll(List.of(
+                new ContactRecord("John", "jsmith@email.com", "1234567890"),
+                new ContactRecord("", "jsmithemail.com", "1234567890"),
+                new ContactRecord("Steve", "sjones@email.net", null)));
+        assertEquals(3, report.getRecordCount());
+        assertEquals(2, report.getInvalidRecordCount());
+        assertEquals(List.of(
+                new ValidationFailure(1, ContactField.NAME, ContactValidator.EMPTY_NAME),
+                new ValidationFailure(1, ContactField.EMAIL, ContactValidator.INVALID_EMAIL),
+                new ValidationFailure(2, ContactField.PHONE_NUMBER, ContactValidator.INVALID_PHONE_NUMBER)), report.getFailures());
+    }
+
+    private static String randomString(Random random, String alphabet, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}